@@ -0,0 +1,331 @@
+package lab.kalba.fuzzy.batch;
+
+/*
+ *  Temporal fuzzy logic API
+ *  Kalba Lab, 2022-2024
+ */
+
+import lab.kalba.fuzzy.core.FuzzyTruth;
+import lab.kalba.fuzzy.temporal.TimeDecomposition;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Applies a fixed set of rules to a text file of records
+ * <pre>
+ * 2022-01-01T09:30:00,42,0.75
+ * </pre>
+ * (local date-time with optional seconds, entity id, input truth), one record per line.
+ * The input is memory mapped and split into record-aligned chunks that are parsed and
+ * evaluated in parallel without creating objects per record. For every record the output
+ * file gets one byte per rule: the quantization level of the rule's truth (see FuzzyTruth),
+ * in the order of the input records. Memory use is bounded by the chunk output buffers.
+ */
+public class BatchFileEvaluator {
+
+    /** Default size of the input chunk processed by one task */
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024 * 1024;
+
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+    private final BatchRule[] rules;
+    private final int chunkSize;
+
+    /**
+     * Creates evaluator with default chunk size
+     */
+    public BatchFileEvaluator(List<BatchRule> rules) {
+        this(rules, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates evaluator with custom chunk size in bytes
+     */
+    public BatchFileEvaluator(List<BatchRule> rules, int chunkSize) {
+        if (rules.isEmpty()) {
+            throw new IllegalArgumentException("At least one rule is required");
+        }
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        this.rules = rules.toArray(new BatchRule[0]);
+        for (BatchRule rule : this.rules) {
+            Objects.requireNonNull(rule);
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Evaluates all records of the input file and writes results to the output file
+     * @return number of evaluated records
+     * @throws IllegalArgumentException when a record is malformed or a truth is out of [-1, +1]
+     */
+    public long evaluate(Path input, Path output) throws IOException {
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                 StandardOpenOption.TRUNCATE_EXISTING)) {
+            long[] bounds = chunkBounds(in);
+            int chunks = bounds.length - 1;
+            long[] records = new long[chunks + 1];
+            try {
+                IntStream.range(0, chunks).parallel()
+                    .forEach(chunk -> records[chunk + 1] = countRecords(map(in, bounds[chunk], bounds[chunk + 1])));
+                for (int chunk = 0; chunk < chunks; chunk++) {
+                    records[chunk + 1] += records[chunk];
+                }
+                IntStream.range(0, chunks).parallel()
+                    .forEach(chunk -> evaluateChunk(map(in, bounds[chunk], bounds[chunk + 1]), bounds[chunk],
+                        out, records[chunk] * rules.length));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return records[chunks];
+        }
+    }
+
+    /**
+     * Chunk boundaries aligned to the start of a record; the last one is the file size
+     */
+    private long[] chunkBounds(FileChannel in) throws IOException {
+        long size = in.size();
+        int chunks = (int) Math.max(1, (size + chunkSize - 1) / chunkSize);
+        long[] bounds = new long[chunks + 1];
+        bounds[chunks] = size;
+        for (int chunk = 1; chunk < chunks; chunk++) {
+            bounds[chunk] = Math.max(bounds[chunk - 1], nextRecord(in, (long) chunk * chunkSize, size));
+        }
+        return bounds;
+    }
+
+    private static long nextRecord(FileChannel in, long position, long size) throws IOException {
+        ByteBuffer window = ByteBuffer.allocate(4096);
+        long offset = position - 1;
+        while (offset < size) {
+            window.clear();
+            int read = in.read(window, offset);
+            if (read < 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (window.get(i) == '\n') {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+        }
+        return size;
+    }
+
+    private static ByteBuffer map(FileChannel in, long from, long to) {
+        try {
+            return in.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long countRecords(ByteBuffer chunk) {
+        long records = 0;
+        boolean blank = true;
+        for (int i = 0, limit = chunk.limit(); i < limit; i++) {
+            byte b = chunk.get(i);
+            if (b == '\n') {
+                if (!blank) records++;
+                blank = true;
+            } else if (b != '\r' && b != ' ') {
+                blank = false;
+            }
+        }
+        return blank ? records : records + 1;
+    }
+
+    private void evaluateChunk(ByteBuffer chunk, long chunkOffset, FileChannel out, long outputOffset) {
+        ByteBuffer results = ByteBuffer.allocate(Math.max(OUTPUT_BUFFER_SIZE, rules.length));
+        RecordParser parser = new RecordParser(chunk, chunkOffset);
+        long position = outputOffset;
+        while (parser.next()) {
+            if (results.remaining() < rules.length) {
+                position = flush(results, out, position);
+            }
+            TimeDecomposition time = parser.time;
+            int entity = parser.entity;
+            float input = parser.truth;
+            for (BatchRule rule : rules) {
+                results.put((byte) FuzzyTruth.toLevel(FuzzyTruth.quantize(rule.truth(time, entity, input))));
+            }
+        }
+        flush(results, out, position);
+    }
+
+    private static long flush(ByteBuffer results, FileChannel out, long position) {
+        results.flip();
+        try {
+            while (results.hasRemaining()) {
+                position += out.write(results, position);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        results.clear();
+        return position;
+    }
+
+    /**
+     * Parses records of one chunk in place. Consecutive records with the same
+     * timestamp share one TimeDecomposition.
+     */
+    private static final class RecordParser {
+
+        private final ByteBuffer chunk;
+        private final long chunkOffset;
+        private final int limit;
+        private int position;
+        private int end;
+
+        private long timeKey = -1;
+        private TimeDecomposition time;
+        private int entity;
+        private float truth;
+
+        private RecordParser(ByteBuffer chunk, long chunkOffset) {
+            this.chunk = chunk;
+            this.chunkOffset = chunkOffset;
+            this.limit = chunk.limit();
+        }
+
+        /**
+         * Moves to the next non-blank record
+         * @return false when the chunk has no more records
+         */
+        private boolean next() {
+            while (position < limit) {
+                int start = position;
+                end = start;
+                while (end < limit && chunk.get(end) != '\n') {
+                    end++;
+                }
+                position = end + 1;
+                while (end > start && (chunk.get(end - 1) == '\r' || chunk.get(end - 1) == ' ')) {
+                    end--;
+                }
+                int first = start;
+                while (first < end && chunk.get(first) == ' ') {
+                    first++;
+                }
+                if (first < end) {
+                    parse(first);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void parse(int start) {
+            int i = start;
+            int year = digits(i, 4);
+            expect(i + 4, '-');
+            int month = digits(i + 5, 2);
+            expect(i + 7, '-');
+            int day = digits(i + 8, 2);
+            if (i + 10 >= end || (chunk.get(i + 10) != 'T' && chunk.get(i + 10) != ' ')) {
+                throw malformed(start);
+            }
+            int hour = digits(i + 11, 2);
+            expect(i + 13, ':');
+            int minute = digits(i + 14, 2);
+            int second = 0;
+            i += 16;
+            if (i < end && chunk.get(i) == ':') {
+                second = digits(i + 1, 2);
+                i += 3;
+                if (i < end && chunk.get(i) == '.') {
+                    i++;
+                    while (i < end && isDigit(chunk.get(i))) i++;
+                }
+            }
+            expect(i++, ',');
+
+            // the key is unique only for fields in range, e.g. 24:00 would collide with 00:00 of the next day
+            if (month < 1 || month > 12 || day < 1 || day > 31 || hour > 23 || minute > 59 || second > 59) {
+                throw malformed(start);
+            }
+            long key = ((((year * 13L + month) * 32 + day) * 24 + hour) * 60 + minute) * 60 + second;
+            if (key != timeKey) {
+                try {
+                    time = TimeDecomposition.of(LocalDateTime.of(year, month, day, hour, minute, second));
+                } catch (RuntimeException e) {
+                    throw malformed(start);
+                }
+                timeKey = key;
+            }
+
+            int entityStart = i;
+            long id = 0;
+            while (i < end && isDigit(chunk.get(i))) {
+                id = id * 10 + (chunk.get(i++) - '0');
+                if (id > Integer.MAX_VALUE) throw malformed(start);
+            }
+            if (i == entityStart) throw malformed(start);
+            entity = (int) id;
+            expect(i++, ',');
+
+            boolean negative = false;
+            if (i < end && (chunk.get(i) == '-' || chunk.get(i) == '+')) {
+                negative = chunk.get(i++) == '-';
+            }
+            int truthStart = i;
+            long mantissa = 0;
+            int scale = -1;
+            while (i < end) {
+                byte b = chunk.get(i++);
+                if (b == '.' && scale < 0) {
+                    scale = 0;
+                } else if (isDigit(b)) {
+                    if (mantissa < 100_000_000L) {
+                        mantissa = mantissa * 10 + (b - '0');
+                        if (scale >= 0) scale++;
+                    } else if (scale < 0) {
+                        throw malformed(start);
+                    }
+                } else {
+                    throw malformed(start);
+                }
+            }
+            if (i == truthStart || (scale == 0 && i == truthStart + 1)) throw malformed(start);
+            float value = (float) (mantissa / Math.pow(10, Math.max(scale, 0)));
+            truth = FuzzyTruth.quantize(negative ? -value : value);
+        }
+
+        private int digits(int at, int count) {
+            if (at + count > end) throw malformed(at);
+            int value = 0;
+            for (int i = at; i < at + count; i++) {
+                byte b = chunk.get(i);
+                if (!isDigit(b)) throw malformed(at);
+                value = value * 10 + (b - '0');
+            }
+            return value;
+        }
+
+        private void expect(int at, char c) {
+            if (at >= end || chunk.get(at) != c) throw malformed(at);
+        }
+
+        private static boolean isDigit(byte b) {
+            return b >= '0' && b <= '9';
+        }
+
+        private IllegalArgumentException malformed(int at) {
+            return new IllegalArgumentException("Malformed record near byte " + (chunkOffset + at));
+        }
+    }
+
+}
@@ -0,0 +1,26 @@
+package lab.kalba.fuzzy.batch;
+
+/*
+ *  Temporal fuzzy logic API
+ *  Kalba Lab, 2022-2024
+ */
+
+import lab.kalba.fuzzy.temporal.TimeDecomposition;
+
+/**
+ * Rule applied by BatchFileEvaluator to every record. Works on primitives only,
+ * so the evaluator does not create FuzzyBool objects per record.
+ */
+@FunctionalInterface
+public interface BatchRule {
+
+    /**
+     * Truth of the rule for one record
+     * @param time is decomposed time of the record
+     * @param entity is an entity id of the record
+     * @param input is an input truth of the record in [-1, +1]
+     * @return truth value in [-1, +1]
+     */
+    float truth(TimeDecomposition time, int entity, float input);
+
+}
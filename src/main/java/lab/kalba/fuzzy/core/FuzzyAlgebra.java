@@ -0,0 +1,57 @@
+package lab.kalba.fuzzy.core;
+
+/*
+ *  Temporal fuzzy logic API
+ *  Kalba Lab, 2022-2024
+ */
+
+import java.util.function.Function;
+
+/**
+ * Fuzzy algebra on signed truth values in [-1, +1].
+ * Every algebra is a final class with static primitive kernels. Composition methods
+ * are implemented in each class separately, so a composed rule calls the kernels of
+ * one algebra directly instead of dispatching through this class per operation.
+ */
+public abstract sealed class FuzzyAlgebra permits SignedProductAlgebra, ZadehAlgebra, LukasiewiczAlgebra {
+
+    /**
+     * Operation AND on truth values
+     */
+    public abstract float and(float a, float b);
+
+    /**
+     * Operation OR on truth values
+     */
+    public abstract float or(float a, float b);
+
+    /**
+     * Operation NOT on truth value
+     */
+    public abstract float not(float a);
+
+    /**
+     * Function producing AND of two functions' results, specialized for the algebra
+     */
+    public abstract <T> Function<T, FuzzyBool> and(Function<T, FuzzyBool> left, Function<T, FuzzyBool> right);
+
+    /**
+     * Function producing OR of two functions' results, specialized for the algebra
+     */
+    public abstract <T> Function<T, FuzzyBool> or(Function<T, FuzzyBool> left, Function<T, FuzzyBool> right);
+
+    /**
+     * Returns new FuzzyBool as result of AND operation, with the trigger of the first operand
+     */
+    public final FuzzyBool and(FuzzyBool a, FuzzyBool b) {
+        return FuzzyBool.of(and(a.getTruth(), b.getTruth()), a.getTriggerFunction());
+    }
+
+    /**
+     * Returns new FuzzyBool as result of OR operation, with the trigger of the first operand
+     */
+    public final FuzzyBool or(FuzzyBool a, FuzzyBool b) {
+        return FuzzyBool.of(or(a.getTruth(), b.getTruth()), a.getTriggerFunction());
+    }
+
+}
@@ -22,8 +22,6 @@ public final class FuzzyBool implements FuzzyLogicalSignedFloat {
     /** Constant for unknown/neutral state (0.0) */
     public static final FuzzyBool UNKNOWN = new FuzzyBool(0.0f);
 
-    private static final float PRECISION = 100.0f;
-
     private final float truth;
     private final TriggerFunction triggerFunction;
 
@@ -96,7 +94,7 @@ public final class FuzzyBool implements FuzzyLogicalSignedFloat {
      */
     @Override
     public Float fuzzyNot() {
-        return (truth == 0.0f) ? 0.0f : -truth;
+        return SignedProductAlgebra.negation(truth);
     }
 
     /**
@@ -116,9 +114,7 @@ public final class FuzzyBool implements FuzzyLogicalSignedFloat {
         if (!isValueValid(secondOperandValue)) {
             throw new IllegalArgumentException("Argument must be between -1.0F and +1.0F");
         }
-        float product = Math.abs(truth * secondOperandValue);
-        product = round(product);
-        return (truth < 0 || secondOperandValue < 0) ? -product : product;
+        return SignedProductAlgebra.conjunction(truth, secondOperandValue);
     }
 
     /**
@@ -145,10 +141,7 @@ public final class FuzzyBool implements FuzzyLogicalSignedFloat {
         if (!isValueValid(secondOperandValue)) {
             throw new IllegalArgumentException("Argument must be between -1.0F and +1.0F");
         }
-        if (truth != 0 && secondOperandValue != 0) {
-            return Math.max(truth, secondOperandValue);
-        }
-        return truth + secondOperandValue;
+        return SignedProductAlgebra.disjunction(truth, secondOperandValue);
     }
 
     /**
@@ -214,7 +207,7 @@ public final class FuzzyBool implements FuzzyLogicalSignedFloat {
     }
 
     private static float round(float value) {
-        return Math.round(value * PRECISION) / PRECISION;
+        return FuzzyTruth.round(value);
     }
 
     @Override
@@ -0,0 +1,61 @@
+package lab.kalba.fuzzy.core;
+
+/*
+ *  Temporal fuzzy logic API
+ *  Kalba Lab, 2022-2024
+ */
+
+/**
+ * Primitive helpers for truth values in [-1, +1] rounded to two decimal places.
+ * Rounded values map one-to-one to LEVELS quantization levels (0 for -1.0, 200 for +1.0).
+ */
+public final class FuzzyTruth {
+
+    /** Number of distinct truth values: -1.00, -0.99, ..., +1.00 */
+    public static final int LEVELS = 201;
+
+    private static final float PRECISION = 100.0f;
+
+    private FuzzyTruth() {
+    }
+
+    /**
+     * Check if value is in [-1, +1]
+     */
+    public static boolean isValid(float value) {
+        return value >= FuzzyLogicalSignedFloat.MIN_VALUE && value <= FuzzyLogicalSignedFloat.MAX_VALUE;
+    }
+
+    /**
+     * Round value to two decimal places
+     */
+    public static float round(float value) {
+        return Math.round(value * PRECISION) / PRECISION;
+    }
+
+    /**
+     * Validate and round value the same way FuzzyBool does
+     * @throws IllegalArgumentException when value is out of [-1, +1]
+     */
+    public static float quantize(float value) {
+        if (!isValid(value)) {
+            throw new IllegalArgumentException("Value must be between -1.0F and +1.0F");
+        }
+        return round(value);
+    }
+
+    /**
+     * Quantization level of a value in [-1, +1], in [0, LEVELS)
+     */
+    public static int toLevel(float value) {
+        return Math.round(value * PRECISION) + 100;
+    }
+
+    /**
+     * Truth value of a quantization level in [0, LEVELS)
+     */
+    public static float fromLevel(int level) {
+        return (level - 100) / PRECISION;
+    }
+
+}
@@ -0,0 +1,87 @@
+package lab.kalba.fuzzy.core;
+
+/*
+ *  Temporal fuzzy logic API
+ *  Kalba Lab, 2022-2024
+ */
+
+import java.util.function.Function;
+
+/**
+ * Default algebra of FuzzyBool.
+ * a AND b ≡ if (a < 0 || b < 0) then -|a × b| else |a × b|
+ * a OR b ≡ if (a ≠ 0 && b ≠ 0) then Max(a, b) else a + b
+ * not a ≡ -a
+ */
+public final class SignedProductAlgebra extends FuzzyAlgebra {
+
+    /**
+     * The only instance of the algebra
+     */
+    public static final SignedProductAlgebra INSTANCE = new SignedProductAlgebra();
+
+    private SignedProductAlgebra() {
+    }
+
+    /**
+     * Primitive kernel of operation AND
+     */
+    public static float conjunction(float a, float b) {
+        float product = FuzzyTruth.round(Math.abs(a * b));
+        return (a < 0 || b < 0) ? -product : product;
+    }
+
+    /**
+     * Primitive kernel of operation OR
+     */
+    public static float disjunction(float a, float b) {
+        if (a != 0 && b != 0) {
+            return Math.max(a, b);
+        }
+        return a + b;
+    }
+
+    /**
+     * Primitive kernel of operation NOT
+     */
+    public static float negation(float a) {
+        return (a == 0.0f) ? 0.0f : -a;
+    }
+
+    @Override
+    public float and(float a, float b) {
+        return conjunction(a, b);
+    }
+
+    @Override
+    public float or(float a, float b) {
+        return disjunction(a, b);
+    }
+
+    @Override
+    public float not(float a) {
+        return negation(a);
+    }
+
+    @Override
+    public <T> Function<T, FuzzyBool> and(Function<T, FuzzyBool> left, Function<T, FuzzyBool> right) {
+        return t -> {
+            FuzzyBool a = left.apply(t);
+            return FuzzyBool.of(conjunction(a.getTruth(), right.apply(t).getTruth()), a.getTriggerFunction());
+        };
+    }
+
+    @Override
+    public <T> Function<T, FuzzyBool> or(Function<T, FuzzyBool> left, Function<T, FuzzyBool> right) {
+        return t -> {
+            FuzzyBool a = left.apply(t);
+            return FuzzyBool.of(disjunction(a.getTruth(), right.apply(t).getTruth()), a.getTriggerFunction());
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "SignedProductAlgebra";
+    }
+
+}
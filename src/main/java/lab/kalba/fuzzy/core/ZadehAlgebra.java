@@ -0,0 +1,83 @@
+package lab.kalba.fuzzy.core;
+
+/*
+ *  Temporal fuzzy logic API
+ *  Kalba Lab, 2022-2024
+ */
+
+import java.util.function.Function;
+
+/**
+ * Zadeh algebra on signed values.
+ * a AND b ≡ Min(a, b)
+ * a OR b ≡ Max(a, b)
+ * not a ≡ -a
+ */
+public final class ZadehAlgebra extends FuzzyAlgebra {
+
+    /**
+     * The only instance of the algebra
+     */
+    public static final ZadehAlgebra INSTANCE = new ZadehAlgebra();
+
+    private ZadehAlgebra() {
+    }
+
+    /**
+     * Primitive kernel of operation AND
+     */
+    public static float conjunction(float a, float b) {
+        return Math.min(a, b);
+    }
+
+    /**
+     * Primitive kernel of operation OR
+     */
+    public static float disjunction(float a, float b) {
+        return Math.max(a, b);
+    }
+
+    /**
+     * Primitive kernel of operation NOT
+     */
+    public static float negation(float a) {
+        return (a == 0.0f) ? 0.0f : -a;
+    }
+
+    @Override
+    public float and(float a, float b) {
+        return conjunction(a, b);
+    }
+
+    @Override
+    public float or(float a, float b) {
+        return disjunction(a, b);
+    }
+
+    @Override
+    public float not(float a) {
+        return negation(a);
+    }
+
+    @Override
+    public <T> Function<T, FuzzyBool> and(Function<T, FuzzyBool> left, Function<T, FuzzyBool> right) {
+        return t -> {
+            FuzzyBool a = left.apply(t);
+            return FuzzyBool.of(conjunction(a.getTruth(), right.apply(t).getTruth()), a.getTriggerFunction());
+        };
+    }
+
+    @Override
+    public <T> Function<T, FuzzyBool> or(Function<T, FuzzyBool> left, Function<T, FuzzyBool> right) {
+        return t -> {
+            FuzzyBool a = left.apply(t);
+            return FuzzyBool.of(disjunction(a.getTruth(), right.apply(t).getTruth()), a.getTriggerFunction());
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "ZadehAlgebra";
+    }
+
+}
@@ -0,0 +1,187 @@
+package lab.kalba.fuzzy.query;
+
+/*
+ *  Temporal fuzzy logic API
+ *  Kalba Lab, 2022-2024
+ */
+
+import lab.kalba.fuzzy.core.FuzzyTruth;
+import lab.kalba.fuzzy.temporal.ContainerFuzzyBoolTime;
+import lab.kalba.fuzzy.trigger.TriggerFunction;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Top-K and bottom-K selection of entities by truth value.
+ * Truth values have only FuzzyTruth.LEVELS distinct values, so selection is a counting
+ * sort: one pass builds a histogram of levels, a second pass writes the selected entity
+ * indices straight to their final positions. Both passes are linear, extra memory is one
+ * histogram per chunk, and large vectors are split across cores.
+ * Results are ordered by truth; equal truths are ordered by entity index.
+ * Factory lists with at least PARALLEL_THRESHOLD elements are evaluated in parallel,
+ * so their factories must be safe to call from several threads.
+ */
+public final class TruthRanking {
+
+    /** Vectors and factory lists with at least this number of entities are ranked in parallel */
+    public static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private TruthRanking() {
+    }
+
+    /**
+     * Indices of k entities with the highest truth, highest first
+     */
+    public static int[] top(float[] truths, int k) {
+        return select(truths, k, TriggerFunction.ALWAYS_TRUE, true);
+    }
+
+    /**
+     * Indices of k entities with the highest truth among those where the trigger fires
+     */
+    public static int[] top(float[] truths, int k, TriggerFunction filter) {
+        return select(truths, k, filter, true);
+    }
+
+    /**
+     * Indices of k entities with the lowest truth, lowest first
+     */
+    public static int[] bottom(float[] truths, int k) {
+        return select(truths, k, TriggerFunction.ALWAYS_TRUE, false);
+    }
+
+    /**
+     * Indices of k entities with the lowest truth among those where the trigger fires
+     */
+    public static int[] bottom(float[] truths, int k, TriggerFunction filter) {
+        return select(truths, k, filter, false);
+    }
+
+    /**
+     * Indices of k factories producing the highest truth at definite time
+     */
+    public static int[] top(List<? extends ContainerFuzzyBoolTime> factories, LocalDateTime time, int k) {
+        return top(evaluate(factories, time), k);
+    }
+
+    /**
+     * Indices of k factories producing the lowest truth at definite time
+     */
+    public static int[] bottom(List<? extends ContainerFuzzyBoolTime> factories, LocalDateTime time, int k) {
+        return bottom(evaluate(factories, time), k);
+    }
+
+    /**
+     * Indices of k factories producing the highest truth at definite time among those where the trigger fires
+     */
+    public static int[] top(List<? extends ContainerFuzzyBoolTime> factories, LocalDateTime time, int k,
+                            TriggerFunction filter) {
+        return top(evaluate(factories, time), k, filter);
+    }
+
+    /**
+     * Indices of k factories producing the lowest truth at definite time among those where the trigger fires
+     */
+    public static int[] bottom(List<? extends ContainerFuzzyBoolTime> factories, LocalDateTime time, int k,
+                               TriggerFunction filter) {
+        return bottom(evaluate(factories, time), k, filter);
+    }
+
+    private static float[] evaluate(List<? extends ContainerFuzzyBoolTime> factories, LocalDateTime time) {
+        Objects.requireNonNull(time);
+        // snapshot to an array: get(i) may be linear, e.g. on LinkedList
+        ContainerFuzzyBoolTime[] array = factories.toArray(new ContainerFuzzyBoolTime[0]);
+        float[] truths = new float[array.length];
+        IntStream indices = IntStream.range(0, truths.length);
+        if (truths.length >= PARALLEL_THRESHOLD) {
+            indices = indices.parallel();
+        }
+        indices.forEach(i -> truths[i] = array[i].get(time).getTruth());
+        return truths;
+    }
+
+    private static int[] select(float[] truths, int k, TriggerFunction filter, boolean highest) {
+        Objects.requireNonNull(filter);
+        if (k < 0) {
+            throw new IllegalArgumentException("K must not be negative");
+        }
+        if (k == 0) {
+            return new int[0];
+        }
+        boolean[] accepted = new boolean[FuzzyTruth.LEVELS];
+        for (int level = 0; level < FuzzyTruth.LEVELS; level++) {
+            accepted[level] = filter.test(FuzzyTruth.fromLevel(level));
+        }
+        int n = truths.length;
+        int chunks = n < PARALLEL_THRESHOLD ? 1
+            : Math.min(Runtime.getRuntime().availableProcessors() * 4, n / (PARALLEL_THRESHOLD / 4));
+
+        // histogram of levels per chunk
+        int[][] counts = new int[chunks][FuzzyTruth.LEVELS];
+        parallelFor(chunks, chunk -> {
+            int[] histogram = counts[chunk];
+            for (int i = start(chunk, chunks, n), end = start(chunk + 1, chunks, n); i < end; i++) {
+                histogram[FuzzyTruth.toLevel(FuzzyTruth.quantize(truths[i]))]++;
+            }
+        });
+
+        // walk levels in rank order up to the cutoff level that completes k entities
+        int[][] positions = new int[chunks][FuzzyTruth.LEVELS];
+        int[] cutoffTake = new int[chunks];
+        int selected = 0;
+        int cutoff = -1;
+        for (int rank = 0; rank < FuzzyTruth.LEVELS && selected < k; rank++) {
+            int level = highest ? FuzzyTruth.LEVELS - 1 - rank : rank;
+            if (!accepted[level]) {
+                continue;
+            }
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                positions[chunk][level] = selected;
+                cutoffTake[chunk] = Math.min(counts[chunk][level], k - selected);
+                selected += cutoffTake[chunk];
+            }
+            if (selected == k) {
+                cutoff = level;
+            }
+        }
+        int[] result = new int[selected];
+        int cutoffLevel = cutoff;
+
+        // write every selected index to its final position
+        parallelFor(chunks, chunk -> {
+            int[] position = positions[chunk];
+            int take = cutoffTake[chunk];
+            for (int i = start(chunk, chunks, n), end = start(chunk + 1, chunks, n); i < end; i++) {
+                int level = FuzzyTruth.toLevel(truths[i]);
+                if (!accepted[level]) {
+                    continue;
+                }
+                if (level == cutoffLevel) {
+                    if (take > 0) {
+                        result[position[level]++] = i;
+                        take--;
+                    }
+                } else if (cutoffLevel < 0 || (highest ? level > cutoffLevel : level < cutoffLevel)) {
+                    result[position[level]++] = i;
+                }
+            }
+        });
+        return result;
+    }
+
+    private static int start(int chunk, int chunks, int n) {
+        return (int) ((long) n * chunk / chunks);
+    }
+
+    private static void parallelFor(int chunks, IntConsumer body) {
+        if (chunks == 1) {
+            body.accept(0);
+        } else {
+            IntStream.range(0, chunks).parallel().forEach(body);
+        }
+    }
+
+}
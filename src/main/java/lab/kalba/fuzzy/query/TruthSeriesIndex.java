@@ -0,0 +1,252 @@
+package lab.kalba.fuzzy.query;
+
+/*
+ *  Temporal fuzzy logic API
+ *  Kalba Lab, 2022-2024
+ */
+
+import lab.kalba.fuzzy.core.FuzzyBool;
+import lab.kalba.fuzzy.core.FuzzyTruth;
+import lab.kalba.fuzzy.trigger.TriggerFunction;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Range query index over a recorded series of truth values sampled every step from origin.
+ * Values are stored as quantization levels in min and max sparse tables, so range min/max
+ * are answered in O(1) and "first time the trigger fires" in O(log n) for threshold-like
+ * triggers. Appending a sample updates the tables in O(log n).
+ * Ranges are half-open: [from, to).
+ * The index is not thread-safe: appends grow the tables in place, so callers sharing an
+ * index between threads must synchronize appends and queries on it.
+ */
+public final class TruthSeriesIndex {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final LocalDateTime origin;
+    private final long originSecond;
+    private final long stepSeconds;
+
+    // minTable[k][i] and maxTable[k][i] cover samples [i, i + 2^k)
+    private byte[][] minTable = new byte[1][INITIAL_CAPACITY];
+    private byte[][] maxTable = new byte[1][INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Creates empty index for samples taken every step starting at origin
+     */
+    public TruthSeriesIndex(LocalDateTime origin, Duration step) {
+        this.origin = Objects.requireNonNull(origin);
+        this.stepSeconds = Objects.requireNonNull(step).getSeconds();
+        if (stepSeconds <= 0 || step.getNano() != 0) {
+            throw new IllegalArgumentException("Step must be a positive whole number of seconds");
+        }
+        this.originSecond = origin.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Appends the next sample
+     */
+    public void append(FuzzyBool value) {
+        append(value.getTruth());
+    }
+
+    /**
+     * Appends the next sample
+     * @throws IllegalArgumentException when value is out of [-1, +1]
+     */
+    public void append(float truth) {
+        byte level = (byte) FuzzyTruth.toLevel(FuzzyTruth.quantize(truth));
+        ensureCapacity(size + 1);
+        int index = size++;
+        minTable[0][index] = level;
+        maxTable[0][index] = level;
+        for (int k = 1; (1 << k) <= size; k++) {
+            if (k == minTable.length) {
+                minTable = Arrays.copyOf(minTable, k + 1);
+                maxTable = Arrays.copyOf(maxTable, k + 1);
+                minTable[k] = new byte[minTable[0].length];
+                maxTable[k] = new byte[maxTable[0].length];
+            }
+            int start = size - (1 << k);
+            int middle = start + (1 << (k - 1));
+            minTable[k][start] = (byte) Math.min(minTable[k - 1][start] & 0xFF, minTable[k - 1][middle] & 0xFF);
+            maxTable[k][start] = (byte) Math.max(maxTable[k - 1][start] & 0xFF, maxTable[k - 1][middle] & 0xFF);
+        }
+    }
+
+    /**
+     * Number of recorded samples
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Truth value of the sample
+     */
+    public float get(int index) {
+        Objects.checkIndex(index, size);
+        return FuzzyTruth.fromLevel(minTable[0][index] & 0xFF);
+    }
+
+    /**
+     * Time of the sample
+     */
+    public LocalDateTime timeOf(int index) {
+        return origin.plusSeconds(index * stepSeconds);
+    }
+
+    /**
+     * Minimum truth value over samples [from, to)
+     */
+    public float min(int from, int to) {
+        return FuzzyTruth.fromLevel(minLevel(from, to));
+    }
+
+    /**
+     * Maximum truth value over samples [from, to)
+     */
+    public float max(int from, int to) {
+        return FuzzyTruth.fromLevel(maxLevel(from, to));
+    }
+
+    /**
+     * Minimum truth value over samples taken in [from, to)
+     */
+    public float min(LocalDateTime from, LocalDateTime to) {
+        return min(indexOf(from), indexOf(to));
+    }
+
+    /**
+     * Maximum truth value over samples taken in [from, to)
+     */
+    public float max(LocalDateTime from, LocalDateTime to) {
+        return max(indexOf(from), indexOf(to));
+    }
+
+    /**
+     * Index of the first sample in [from, to) where the trigger fires.
+     * Triggers that fire for all values above (or below) a threshold, like the built-in
+     * ones, are answered in O(log n); other triggers fall back to a scan of the range.
+     * @return index of the sample, or -1 when the trigger does not fire in the range
+     */
+    public int firstTriggered(int from, int to, TriggerFunction trigger) {
+        Objects.requireNonNull(trigger);
+        Objects.checkFromToIndex(from, to, size);
+        boolean[] fires = new boolean[FuzzyTruth.LEVELS];
+        int firing = 0;
+        for (int level = 0; level < FuzzyTruth.LEVELS; level++) {
+            fires[level] = trigger.test(FuzzyTruth.fromLevel(level));
+            if (fires[level]) firing++;
+        }
+        if (from == to || firing == 0) {
+            return -1;
+        }
+        if (isSuffix(fires, firing)) {
+            return firstAtOrAbove(from, to, FuzzyTruth.LEVELS - firing);
+        }
+        if (isPrefix(fires, firing)) {
+            return firstAtOrBelow(from, to, firing - 1);
+        }
+        for (int i = from; i < to; i++) {
+            if (fires[minTable[0][i] & 0xFF]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Time of the first sample taken in [from, to) where the trigger fires
+     * @return time of the sample, or null when the trigger does not fire in the range
+     */
+    public LocalDateTime firstTriggered(LocalDateTime from, LocalDateTime to, TriggerFunction trigger) {
+        int index = firstTriggered(indexOf(from), indexOf(to), trigger);
+        return index < 0 ? null : timeOf(index);
+    }
+
+    private int firstAtOrAbove(int from, int to, int level) {
+        if (maxLevel(from, to) < level) {
+            return -1;
+        }
+        int position = from;
+        for (int k = maxTable.length - 1; k >= 0; k--) {
+            if (position + (1 << k) <= to && (maxTable[k][position] & 0xFF) < level) {
+                position += 1 << k;
+            }
+        }
+        return position;
+    }
+
+    private int firstAtOrBelow(int from, int to, int level) {
+        if (minLevel(from, to) > level) {
+            return -1;
+        }
+        int position = from;
+        for (int k = minTable.length - 1; k >= 0; k--) {
+            if (position + (1 << k) <= to && (minTable[k][position] & 0xFF) > level) {
+                position += 1 << k;
+            }
+        }
+        return position;
+    }
+
+    private int minLevel(int from, int to) {
+        checkRange(from, to);
+        int k = 31 - Integer.numberOfLeadingZeros(to - from);
+        return Math.min(minTable[k][from] & 0xFF, minTable[k][to - (1 << k)] & 0xFF);
+    }
+
+    private int maxLevel(int from, int to) {
+        checkRange(from, to);
+        int k = 31 - Integer.numberOfLeadingZeros(to - from);
+        return Math.max(maxTable[k][from] & 0xFF, maxTable[k][to - (1 << k)] & 0xFF);
+    }
+
+    private void checkRange(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        if (from == to) {
+            throw new IllegalArgumentException("Range must not be empty");
+        }
+    }
+
+    /**
+     * Index of the first sample taken at or after the time, clamped to [0, size]
+     */
+    private int indexOf(LocalDateTime time) {
+        long seconds = time.toEpochSecond(ZoneOffset.UTC) - originSecond;
+        long index = -Math.floorDiv(-seconds, stepSeconds);
+        return (int) Math.max(0, Math.min(size, index));
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= minTable[0].length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, minTable[0].length * 2);
+        for (int k = 0; k < minTable.length; k++) {
+            minTable[k] = Arrays.copyOf(minTable[k], newCapacity);
+            maxTable[k] = Arrays.copyOf(maxTable[k], newCapacity);
+        }
+    }
+
+    private static boolean isSuffix(boolean[] fires, int firing) {
+        for (int level = FuzzyTruth.LEVELS - firing; level < FuzzyTruth.LEVELS; level++) {
+            if (!fires[level]) return false;
+        }
+        return true;
+    }
+
+    private static boolean isPrefix(boolean[] fires, int firing) {
+        for (int level = 0; level < firing; level++) {
+            if (!fires[level]) return false;
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,334 @@
+package lab.kalba.fuzzy.snapshot;
+
+/*
+ *  Temporal fuzzy logic API
+ *  Kalba Lab, 2022-2024
+ */
+
+import lab.kalba.fuzzy.temporal.TemporalRaster;
+import lab.kalba.fuzzy.trigger.TriggerFunction;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Versioned binary snapshot of rasterized rules. A snapshot is loaded by memory mapping:
+ * only the header and the rule directory are read on load, each rule is materialized
+ * on first access directly over the mapped bytes.
+ *
+ * <pre>
+ * int  magic "FZSN", int version, int triggerCount, int ruleCount
+ * triggerCount × name                                   — interned trigger ids
+ * ruleCount × (name, int triggerId, long originSecond,
+ *              long stepSeconds, int count, long dataOffset)
+ * levels of all rules, one byte per sample
+ * </pre>
+ * Names are written as unsigned short length followed by UTF-8 bytes.
+ * Time functions are lambdas and cannot be persisted, so composed rules are stored
+ * as their rasters (see TemporalRaster.sample()).
+ */
+public final class RuleSnapshot {
+
+    /** "FZSN" */
+    public static final int MAGIC = 0x465A534E;
+
+    /** Current format version */
+    public static final int VERSION = 1;
+
+    /** Named built-in triggers known to every snapshot */
+    public static final Map<String, TriggerFunction> BUILT_IN_TRIGGERS = builtInTriggers();
+
+    private final ByteBuffer buffer;
+    private final Map<String, Entry> directory;
+    private final Map<String, TemporalRaster> materialized = new ConcurrentHashMap<>();
+
+    private RuleSnapshot(ByteBuffer buffer, Map<String, Entry> directory) {
+        this.buffer = buffer;
+        this.directory = directory;
+    }
+
+    /**
+     * Writes rules to the file using built-in trigger names
+     */
+    public static void write(Path file, Map<String, TemporalRaster> rules) throws IOException {
+        write(file, rules, BUILT_IN_TRIGGERS);
+    }
+
+    /**
+     * Writes rules to the file. The snapshot is written to a temporary file in the same
+     * directory and then atomically moved over the target, so snapshots already loaded
+     * (memory mapped) from the previous file keep reading their original content.
+     * @param rules are rasters by rule name, written in iteration order
+     * @param triggers are names of every trigger used by the rules
+     * @throws IllegalArgumentException when a rule uses a trigger that has no name
+     */
+    public static void write(Path file, Map<String, TemporalRaster> rules,
+                             Map<String, TriggerFunction> triggers) throws IOException {
+        Map<TriggerFunction, Integer> triggerIds = new IdentityHashMap<>();
+        List<String> triggerNames = new ArrayList<>();
+        for (TemporalRaster raster : rules.values()) {
+            TriggerFunction trigger = raster.getTriggerFunction();
+            if (triggerIds.containsKey(trigger)) {
+                continue;
+            }
+            String name = nameOf(trigger, triggers);
+            triggerIds.put(trigger, triggerNames.size());
+            triggerNames.add(name);
+        }
+
+        long dataOffset = 16;
+        for (String name : triggerNames) {
+            dataOffset += 2 + encode(name).length;
+        }
+        for (String name : rules.keySet()) {
+            dataOffset += 2 + encode(name).length + 4 + 8 + 8 + 4 + 8;
+        }
+
+        Path target = file.toAbsolutePath();
+        Path temporary = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            writeTo(temporary, rules, triggerNames, triggerIds, dataOffset);
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static void writeTo(Path file, Map<String, TemporalRaster> rules, List<String> triggerNames,
+                                Map<TriggerFunction, Integer> triggerIds, long dataOffset) throws IOException {
+        try (OutputStream stream = Files.newOutputStream(file);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(triggerNames.size());
+            out.writeInt(rules.size());
+            for (String name : triggerNames) {
+                writeName(out, name);
+            }
+            for (Map.Entry<String, TemporalRaster> rule : rules.entrySet()) {
+                TemporalRaster raster = rule.getValue();
+                writeName(out, rule.getKey());
+                out.writeInt(triggerIds.get(raster.getTriggerFunction()));
+                out.writeLong(raster.getOrigin().toEpochSecond(ZoneOffset.UTC));
+                out.writeLong(raster.getStep().getSeconds());
+                out.writeInt(raster.getCount());
+                out.writeLong(dataOffset);
+                dataOffset += raster.getCount();
+            }
+            for (TemporalRaster raster : rules.values()) {
+                ByteBuffer levels = raster.getLevels();
+                byte[] chunk = new byte[Math.min(levels.remaining(), 8192)];
+                while (levels.hasRemaining()) {
+                    int length = Math.min(chunk.length, levels.remaining());
+                    levels.get(chunk, 0, length);
+                    out.write(chunk, 0, length);
+                }
+            }
+        }
+    }
+
+    /**
+     * Maps the snapshot file using built-in trigger names
+     */
+    public static RuleSnapshot load(Path file) throws IOException {
+        return load(file, BUILT_IN_TRIGGERS);
+    }
+
+    /**
+     * Maps the snapshot file and reads its directory
+     * @param triggers resolve trigger names stored in the snapshot
+     * @throws IllegalArgumentException when the file is not a snapshot of a supported
+     *                                  version, is truncated or corrupt, or refers to
+     *                                  an unknown trigger
+     */
+    public static RuleSnapshot load(Path file, Map<String, TriggerFunction> triggers) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.remaining() < 16 || buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a rule snapshot: " + file);
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported snapshot version " + version);
+        }
+        Map<String, Entry> directory;
+        try {
+            directory = readDirectory(buffer, triggers);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated rule snapshot: " + file);
+        } catch (DateTimeException | ArithmeticException e) {
+            throw new IllegalArgumentException("Corrupt rule snapshot: " + file);
+        }
+        return new RuleSnapshot(buffer, directory);
+    }
+
+    private static Map<String, Entry> readDirectory(ByteBuffer buffer, Map<String, TriggerFunction> triggers) {
+        int triggerCount = buffer.getInt();
+        int ruleCount = buffer.getInt();
+        // every name takes at least its 2-byte length
+        if (triggerCount < 0 || ruleCount < 0 || (long) triggerCount * 2 + (long) ruleCount * 34 > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        TriggerFunction[] triggerTable = new TriggerFunction[triggerCount];
+        for (int i = 0; i < triggerTable.length; i++) {
+            String name = readName(buffer);
+            triggerTable[i] = triggers.get(name);
+            if (triggerTable[i] == null) {
+                throw new IllegalArgumentException("Unknown trigger " + name);
+            }
+        }
+        Map<String, Entry> directory = new LinkedHashMap<>();
+        long[] offsets = new long[ruleCount];
+        for (int i = 0; i < ruleCount; i++) {
+            String name = readName(buffer);
+            int triggerId = buffer.getInt();
+            if (triggerId < 0 || triggerId >= triggerTable.length) {
+                throw new IllegalArgumentException("Unknown trigger id " + triggerId + " of rule " + name);
+            }
+            LocalDateTime origin = LocalDateTime.ofEpochSecond(buffer.getLong(), 0, ZoneOffset.UTC);
+            Duration step = Duration.ofSeconds(buffer.getLong());
+            int count = buffer.getInt();
+            offsets[i] = buffer.getLong();
+            if (step.isNegative() || step.isZero() || count <= 0) {
+                throw new IllegalArgumentException("Invalid raster of rule " + name);
+            }
+            directory.put(name, new Entry(triggerTable[triggerId], origin, step, count, 0));
+        }
+        int dataStart = buffer.position();
+        int i = 0;
+        for (Map.Entry<String, Entry> rule : directory.entrySet()) {
+            Entry entry = rule.getValue();
+            long offset = offsets[i++];
+            if (offset < dataStart || offset > buffer.capacity() - (long) entry.count) {
+                throw new IllegalArgumentException("Invalid data offset of rule " + rule.getKey());
+            }
+            rule.setValue(new Entry(entry.trigger, entry.origin, entry.step, entry.count, (int) offset));
+        }
+        return directory;
+    }
+
+    /**
+     * Names of all rules in the snapshot
+     */
+    public Set<String> names() {
+        return Collections.unmodifiableSet(directory.keySet());
+    }
+
+    /**
+     * Number of rules in the snapshot
+     */
+    public int size() {
+        return directory.size();
+    }
+
+    /**
+     * Check if the rule has already been materialized
+     */
+    public boolean isMaterialized(String name) {
+        return materialized.containsKey(name);
+    }
+
+    /**
+     * Get the rule, materializing it over the mapped bytes on first access
+     * @return raster of the rule, or null when there is no rule with the name
+     */
+    public TemporalRaster get(String name) {
+        Entry entry = directory.get(Objects.requireNonNull(name));
+        if (entry == null) {
+            return null;
+        }
+        return materialized.computeIfAbsent(name, key -> entry.materialize(buffer));
+    }
+
+    private static String nameOf(TriggerFunction trigger, Map<String, TriggerFunction> triggers) {
+        for (Map.Entry<String, TriggerFunction> named : triggers.entrySet()) {
+            if (named.getValue() == trigger) {
+                return named.getKey();
+            }
+        }
+        throw new IllegalArgumentException("Trigger has no name in the snapshot trigger table");
+    }
+
+    private static byte[] encode(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Name is too long: " + name);
+        }
+        return bytes;
+    }
+
+    private static void writeName(DataOutputStream out, String name) throws IOException {
+        byte[] bytes = encode(name);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readName(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, TriggerFunction> builtInTriggers() {
+        Map<String, TriggerFunction> triggers = new LinkedHashMap<>();
+        triggers.put("EXACT_TRUE", TriggerFunction.EXACT_TRUE);
+        triggers.put("POSITIVE", TriggerFunction.POSITIVE);
+        triggers.put("NON_NEGATIVE", TriggerFunction.NON_NEGATIVE);
+        triggers.put("MAJORITY", TriggerFunction.MAJORITY);
+        triggers.put("STRONG", TriggerFunction.STRONG);
+        triggers.put("ALWAYS_TRUE", TriggerFunction.ALWAYS_TRUE);
+        triggers.put("ALWAYS_FALSE", TriggerFunction.ALWAYS_FALSE);
+        return Collections.unmodifiableMap(triggers);
+    }
+
+    /**
+     * Directory record of one rule
+     */
+    private static final class Entry {
+
+        private final TriggerFunction trigger;
+        private final LocalDateTime origin;
+        private final Duration step;
+        private final int count;
+        private final int offset;
+
+        private Entry(TriggerFunction trigger, LocalDateTime origin, Duration step, int count, int offset) {
+            this.trigger = trigger;
+            this.origin = origin;
+            this.step = step;
+            this.count = count;
+            this.offset = offset;
+        }
+
+        private TemporalRaster materialize(ByteBuffer buffer) {
+            ByteBuffer levels = buffer.duplicate();
+            levels.position(offset).limit(offset + count);
+            return new TemporalRaster(origin, step, levels.slice(), trigger);
+        }
+    }
+
+}
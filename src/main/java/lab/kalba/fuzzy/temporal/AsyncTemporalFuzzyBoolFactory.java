@@ -0,0 +1,183 @@
+package lab.kalba.fuzzy.temporal;
+
+/*
+ *  Temporal fuzzy logic API
+ *  Kalba Lab, 2022-2024
+ */
+
+import lab.kalba.fuzzy.core.FuzzyBool;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Asynchronous variant of TemporalFuzzyBoolFactory for time functions that consult
+ * slow sources. Composed factories start every operand before combining, so independent
+ * leaves run concurrently. Blocking leaves run on virtual threads when the runtime
+ * has them (Java 21+) and on a cached pool of daemon platform threads otherwise.
+ */
+public class AsyncTemporalFuzzyBoolFactory {
+
+    private final Function<LocalDateTime, CompletableFuture<FuzzyBool>> timeFunction;
+
+    /**
+     * Constructor with asynchronous time function
+     */
+    public AsyncTemporalFuzzyBoolFactory(Function<LocalDateTime, CompletableFuture<FuzzyBool>> timeFunction) {
+        this.timeFunction = Objects.requireNonNull(timeFunction);
+    }
+
+    /**
+     * Creates factory that runs a blocking time function on the default executor
+     */
+    public static AsyncTemporalFuzzyBoolFactory blocking(Function<LocalDateTime, FuzzyBool> timeFunction) {
+        return blocking(timeFunction, defaultExecutor());
+    }
+
+    /**
+     * Creates factory that runs a blocking time function on the given executor
+     */
+    public static AsyncTemporalFuzzyBoolFactory blocking(Function<LocalDateTime, FuzzyBool> timeFunction,
+                                                         Executor executor) {
+        Objects.requireNonNull(timeFunction);
+        Objects.requireNonNull(executor);
+        return new AsyncTemporalFuzzyBoolFactory(
+            time -> CompletableFuture.supplyAsync(() -> timeFunction.apply(time), executor)
+        );
+    }
+
+    /**
+     * Wraps synchronous factory; its results are completed immediately
+     */
+    public static AsyncTemporalFuzzyBoolFactory of(TemporalFuzzyBoolFactory factory) {
+        Objects.requireNonNull(factory);
+        return new AsyncTemporalFuzzyBoolFactory(time -> CompletableFuture.completedFuture(factory.get(time)));
+    }
+
+    /**
+     * Executor used by blocking(): virtual thread per task when available,
+     * otherwise cached daemon platform threads
+     */
+    public static Executor defaultExecutor() {
+        return DefaultExecutor.INSTANCE;
+    }
+
+    /**
+     * Produces future FuzzyBool object according to the time function
+     */
+    public CompletableFuture<FuzzyBool> get(LocalDateTime time) {
+        Objects.requireNonNull(time);
+        return timeFunction.apply(time);
+    }
+
+    /**
+     * Produces future FuzzyBool object for current time
+     */
+    public CompletableFuture<FuzzyBool> now() {
+        return get(LocalDateTime.now());
+    }
+
+    /**
+     * Creates new factory that truncates time to the bucket and coalesces concurrent
+     * requests for the same bucket into one underlying call
+     * @param bucket is a unit the time is truncated to, e.g. MINUTES
+     * @throws IllegalArgumentException when time cannot be truncated to the unit (larger than DAYS)
+     */
+    public AsyncTemporalFuzzyBoolFactory coalescing(ChronoUnit bucket) {
+        Objects.requireNonNull(bucket);
+        try {
+            LocalDateTime.MIN.truncatedTo(bucket);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Bucket must be DAYS or smaller: " + bucket);
+        }
+        ConcurrentHashMap<LocalDateTime, CompletableFuture<FuzzyBool>> inFlight = new ConcurrentHashMap<>();
+        return new AsyncTemporalFuzzyBoolFactory(time -> {
+            LocalDateTime instant = time.truncatedTo(bucket);
+            CompletableFuture<FuzzyBool> result = new CompletableFuture<>();
+            CompletableFuture<FuzzyBool> pending = inFlight.putIfAbsent(instant, result);
+            if (pending != null) {
+                return pending.copy();
+            }
+            try {
+                this.get(instant).whenComplete((value, error) -> {
+                    inFlight.remove(instant, result);
+                    if (error != null) {
+                        result.completeExceptionally(error);
+                    } else {
+                        result.complete(value);
+                    }
+                });
+            } catch (RuntimeException e) {
+                inFlight.remove(instant, result);
+                result.completeExceptionally(e);
+            }
+            return result.copy();
+        });
+    }
+
+    /**
+     * Creates new factory that combines this and other with AND operation
+     */
+    public AsyncTemporalFuzzyBoolFactory and(AsyncTemporalFuzzyBoolFactory other) {
+        Objects.requireNonNull(other);
+        return new AsyncTemporalFuzzyBoolFactory(
+            time -> this.get(time).thenCombine(other.get(time), FuzzyBool::and)
+        );
+    }
+
+    /**
+     * Creates new factory that combines this and other with OR operation
+     */
+    public AsyncTemporalFuzzyBoolFactory or(AsyncTemporalFuzzyBoolFactory other) {
+        Objects.requireNonNull(other);
+        return new AsyncTemporalFuzzyBoolFactory(
+            time -> this.get(time).thenCombine(other.get(time), FuzzyBool::or)
+        );
+    }
+
+    /**
+     * Creates new factory that negates this factory's result
+     */
+    public AsyncTemporalFuzzyBoolFactory not() {
+        return new AsyncTemporalFuzzyBoolFactory(
+            time -> this.get(time).thenApply(FuzzyBool::not)
+        );
+    }
+
+    /**
+     * Synchronous view that waits for the result
+     */
+    public TemporalFuzzyBoolFactory toTemporal() {
+        return new TemporalFuzzyBoolFactory(time -> get(time).join());
+    }
+
+    /**
+     * Lazily created shared executor for blocking leaves
+     */
+    private static final class DefaultExecutor {
+
+        private static final Executor INSTANCE = create();
+
+        private static Executor create() {
+            try {
+                return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+            } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+                return Executors.newCachedThreadPool(task -> {
+                    Thread thread = new Thread(task, "fuzzy-async");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+        }
+    }
+
+}
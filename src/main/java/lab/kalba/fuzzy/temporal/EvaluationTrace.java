@@ -0,0 +1,134 @@
+package lab.kalba.fuzzy.temporal;
+
+/*
+ *  Temporal fuzzy logic API
+ *  Kalba Lab, 2022-2024
+ */
+
+import lab.kalba.fuzzy.core.FuzzyBool;
+import java.util.List;
+
+/**
+ * Immutable node of an evaluation trace produced by TemporalFuzzyBoolFactory.explain().
+ * Every node keeps the value of its sub-condition, the trigger outcome, how many times
+ * the same factory was evaluated within the trace and how long the evaluation took.
+ */
+public final class EvaluationTrace {
+
+    /** Share of the total time above which a node is flagged as dominant */
+    public static final double DOMINANCE_SHARE = 0.5;
+
+    private final TemporalFuzzyBoolFactory.Operation operation;
+    private final String name;
+    private final FuzzyBool value;
+    private final int evaluations;
+    private final long nanos;
+    private final long selfNanos;
+    private final boolean dominant;
+    private final List<EvaluationTrace> children;
+
+    EvaluationTrace(TemporalFuzzyBoolFactory.Operation operation,
+                    String name,
+                    FuzzyBool value,
+                    int evaluations,
+                    long nanos,
+                    long selfNanos,
+                    boolean dominant,
+                    List<EvaluationTrace> children) {
+        this.operation = operation;
+        this.name = name;
+        this.value = value;
+        this.evaluations = evaluations;
+        this.nanos = nanos;
+        this.selfNanos = selfNanos;
+        this.dominant = dominant;
+        this.children = List.copyOf(children);
+    }
+
+    static boolean dominates(long selfNanos, long totalNanos) {
+        return totalNanos > 0 && selfNanos >= totalNanos * DOMINANCE_SHARE;
+    }
+
+    /**
+     * Get the operation of the node
+     */
+    public TemporalFuzzyBoolFactory.Operation getOperation() {
+        return operation;
+    }
+
+    /**
+     * Get the name of the factory, or null when it has no name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the value produced by the node
+     */
+    public FuzzyBool getValue() {
+        return value;
+    }
+
+    /**
+     * Trigger outcome of the produced value with its own trigger function
+     */
+    public boolean isTriggered() {
+        return value.trigger();
+    }
+
+    /**
+     * Number of times the same factory was evaluated within the whole trace
+     */
+    public int getEvaluations() {
+        return evaluations;
+    }
+
+    /**
+     * Time spent in the node including its children, in nanoseconds
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * Time spent in the node itself, excluding its children, in nanoseconds
+     */
+    public long getSelfNanos() {
+        return selfNanos;
+    }
+
+    /**
+     * Check if the node's own time is at least DOMINANCE_SHARE of the whole evaluation
+     */
+    public boolean isDominant() {
+        return dominant;
+    }
+
+    /**
+     * Get operands of the node (empty for leaves)
+     */
+    public List<EvaluationTrace> getChildren() {
+        return children;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        append(builder, 0);
+        return builder.toString();
+    }
+
+    private void append(StringBuilder builder, int depth) {
+        builder.append("  ".repeat(depth))
+            .append(dominant ? "* " : "")
+            .append(name != null ? name : operation)
+            .append(String.format(" [%.2f] triggered=%b evaluations=%d time=%dns self=%dns",
+                value.getTruth(), isTriggered(), evaluations, nanos, selfNanos))
+            .append('\n');
+        for (EvaluationTrace child : children) {
+            child.append(builder, depth + 1);
+        }
+    }
+
+}
@@ -0,0 +1,141 @@
+package lab.kalba.fuzzy.temporal;
+
+/*
+ *  Temporal fuzzy logic API
+ *  Kalba Lab, 2022-2024
+ */
+
+import lab.kalba.fuzzy.core.FuzzyBool;
+import lab.kalba.fuzzy.core.FuzzyTruth;
+import lab.kalba.fuzzy.trigger.TriggerFunction;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Time machine for many entities that share the same rule but differ in parameters.
+ * The rule (kernel) is defined once, per-entity parameters live in primitive columns
+ * (columns[c][entity]), and a batch evaluation decomposes the time once for all entities.
+ * Columns are not copied: the factory reads the caller's arrays live, so their values
+ * must not change while an evaluation is running.
+ */
+public class ParameterizedTemporalFuzzyBoolFactory {
+
+    /** Ranges with at least this number of entities are evaluated in parallel */
+    public static final int PARALLEL_THRESHOLD = 4096;
+
+    /**
+     * Rule shared by all entities
+     */
+    @FunctionalInterface
+    public interface Kernel {
+
+        /**
+         * Truth of the rule for one entity
+         * @param time is decomposed definite time
+         * @param columns are parameter columns, columns[c][entity]
+         * @param entity is an index of the entity
+         * @return truth value in [-1, +1]
+         */
+        float truth(TimeDecomposition time, float[][] columns, int entity);
+    }
+
+    private final int entityCount;
+    private final Kernel kernel;
+    private final float[][] columns;
+    private final TriggerFunction triggerFunction;
+
+    /**
+     * Creates factory with default trigger (EXACT_TRUE)
+     */
+    public ParameterizedTemporalFuzzyBoolFactory(int entityCount, Kernel kernel, float[]... columns) {
+        this(entityCount, kernel, TriggerFunction.EXACT_TRUE, columns);
+    }
+
+    /**
+     * Creates factory with custom trigger function for produced FuzzyBool objects
+     */
+    public ParameterizedTemporalFuzzyBoolFactory(int entityCount, Kernel kernel,
+                                                 TriggerFunction triggerFunction, float[]... columns) {
+        if (entityCount < 0) {
+            throw new IllegalArgumentException("Entity count must not be negative");
+        }
+        Objects.requireNonNull(columns);
+        for (float[] column : columns) {
+            if (column == null) {
+                throw new IllegalArgumentException("Column must not be null");
+            }
+            if (column.length != entityCount) {
+                throw new IllegalArgumentException("Every column must have a value for each entity");
+            }
+        }
+        this.entityCount = entityCount;
+        this.kernel = Objects.requireNonNull(kernel);
+        this.triggerFunction = Objects.requireNonNull(triggerFunction);
+        this.columns = columns.clone();
+    }
+
+    /**
+     * Get number of entities
+     */
+    public int getEntityCount() {
+        return entityCount;
+    }
+
+    /**
+     * Produces FuzzyBool object for one entity
+     */
+    public FuzzyBool get(LocalDateTime time, int entity) {
+        Objects.checkIndex(entity, entityCount);
+        return FuzzyBool.of(truth(TimeDecomposition.of(time), entity), triggerFunction);
+    }
+
+    /**
+     * Single-entity view compatible with the rest of the temporal API
+     */
+    public TemporalFuzzyBoolFactory factoryFor(int entity) {
+        Objects.checkIndex(entity, entityCount);
+        return new TemporalFuzzyBoolFactory(time -> get(time, entity));
+    }
+
+    /**
+     * Truth values of all entities at definite time
+     */
+    public float[] evaluate(LocalDateTime time) {
+        return evaluate(time, 0, entityCount);
+    }
+
+    /**
+     * Truth values of entities in [from, to) at definite time.
+     * Large ranges are split across cores; the time is decomposed once.
+     * @return vector where element i is the truth of entity from + i
+     */
+    public float[] evaluate(LocalDateTime time, int from, int to) {
+        Objects.checkFromToIndex(from, to, entityCount);
+        TimeDecomposition decomposed = TimeDecomposition.of(time);
+        float[] truths = new float[to - from];
+        if (truths.length < PARALLEL_THRESHOLD) {
+            fill(decomposed, truths, from, from, to);
+        } else {
+            int chunks = Math.min(Runtime.getRuntime().availableProcessors() * 4,
+                (truths.length + PARALLEL_THRESHOLD - 1) / PARALLEL_THRESHOLD);
+            IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                int start = from + (int) ((long) truths.length * chunk / chunks);
+                int end = from + (int) ((long) truths.length * (chunk + 1) / chunks);
+                fill(decomposed, truths, from, start, end);
+            });
+        }
+        return truths;
+    }
+
+    private void fill(TimeDecomposition time, float[] truths, int offset, int start, int end) {
+        for (int entity = start; entity < end; entity++) {
+            truths[entity - offset] = truth(time, entity);
+        }
+    }
+
+    private float truth(TimeDecomposition time, int entity) {
+        return FuzzyTruth.quantize(kernel.truth(time, columns, entity));
+    }
+
+}
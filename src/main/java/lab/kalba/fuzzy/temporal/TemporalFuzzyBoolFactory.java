@@ -5,9 +5,17 @@ package lab.kalba.fuzzy.temporal;
  *  Kalba Lab, 2022-2024
  */
 
+import lab.kalba.fuzzy.core.FuzzyAlgebra;
 import lab.kalba.fuzzy.core.FuzzyBool;
+import lab.kalba.fuzzy.core.SignedProductAlgebra;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import java.util.function.Function;
 
 /**
@@ -18,20 +26,67 @@ import java.util.function.Function;
  */
 public class TemporalFuzzyBoolFactory implements ContainerFuzzyBoolTime {
 
+    /**
+     * Kind of node in a composed factory tree
+     */
+    public enum Operation { LEAF, AND, OR, NOT }
+
     private final Function<LocalDateTime, FuzzyBool> timeFunction;
+    private final Operation operation;
+    private final TemporalFuzzyBoolFactory left;
+    private final TemporalFuzzyBoolFactory right;
+    private final FuzzyAlgebra algebra;
+    private final String name;
+    private final int leafCount;
+    private final ForkJoinPool pool;
+    private final int sequentialThreshold;
 
     /**
      * Constructor with the default time function (returns UNKNOWN)
      */
     public TemporalFuzzyBoolFactory() {
-        this.timeFunction = time -> FuzzyBool.UNKNOWN;
+        this(time -> FuzzyBool.UNKNOWN);
     }
 
     /**
      * Constructor with custom time function
      */
     public TemporalFuzzyBoolFactory(Function<LocalDateTime, FuzzyBool> timeFunction) {
+        this(timeFunction, Operation.LEAF, null, null, SignedProductAlgebra.INSTANCE, null);
+    }
+
+    private TemporalFuzzyBoolFactory(Function<LocalDateTime, FuzzyBool> timeFunction,
+                                     Operation operation,
+                                     TemporalFuzzyBoolFactory left,
+                                     TemporalFuzzyBoolFactory right,
+                                     FuzzyAlgebra algebra,
+                                     String name) {
+        this(timeFunction, operation, left, right, algebra, name, null, 0);
+    }
+
+    private TemporalFuzzyBoolFactory(Function<LocalDateTime, FuzzyBool> timeFunction,
+                                     Operation operation,
+                                     TemporalFuzzyBoolFactory left,
+                                     TemporalFuzzyBoolFactory right,
+                                     FuzzyAlgebra algebra,
+                                     String name,
+                                     ForkJoinPool pool,
+                                     int sequentialThreshold) {
+        this.pool = pool;
+        this.sequentialThreshold = sequentialThreshold;
         this.timeFunction = Objects.requireNonNull(timeFunction);
+        this.operation = operation;
+        this.left = left;
+        this.right = right;
+        this.algebra = algebra;
+        this.name = name;
+        if (operation == Operation.LEAF) {
+            this.leafCount = 1;
+        } else if (operation == Operation.NOT) {
+            this.leafCount = left.leafCount;
+        } else {
+            this.leafCount = (int) Math.min(Integer.MAX_VALUE, (long) left.leafCount + right.leafCount);
+        }
     }
 
     /**
@@ -41,6 +96,42 @@ public class TemporalFuzzyBoolFactory implements ContainerFuzzyBoolTime {
         return timeFunction;
     }
 
+    /**
+     * Get the operation of this node (LEAF for factories built from a time function)
+     */
+    public Operation getOperation() {
+        return operation;
+    }
+
+    /**
+     * Get the algebra used by AND and OR nodes of this factory
+     */
+    public FuzzyAlgebra getAlgebra() {
+        return algebra;
+    }
+
+    /**
+     * Number of leaves in the factory tree (a leaf is counted once per occurrence)
+     */
+    public int getLeafCount() {
+        return leafCount;
+    }
+
+    /**
+     * Get the name given by withName(), or null
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Create new factory with the same rules and a name shown in evaluation traces
+     */
+    public TemporalFuzzyBoolFactory withName(String newName) {
+        return new TemporalFuzzyBoolFactory(timeFunction, operation, left, right, algebra,
+            Objects.requireNonNull(newName), pool, sequentialThreshold);
+    }
+
     /**
      * Produces FuzzyBool object according to the time function
      * @param time is definite time
@@ -66,7 +157,19 @@ public class TemporalFuzzyBoolFactory implements ContainerFuzzyBoolTime {
     public TemporalFuzzyBoolFactory and(TemporalFuzzyBoolFactory other) {
         Objects.requireNonNull(other);
         return new TemporalFuzzyBoolFactory(
-            time -> this.get(time).and(other.get(time))
+            time -> this.get(time).and(other.get(time)),
+            Operation.AND, this, other, SignedProductAlgebra.INSTANCE, null
+        );
+    }
+
+    /**
+     * Creates new factory that combines this and other with AND operation of the algebra
+     */
+    public TemporalFuzzyBoolFactory and(TemporalFuzzyBoolFactory other, FuzzyAlgebra algebra) {
+        Objects.requireNonNull(other);
+        return new TemporalFuzzyBoolFactory(
+            algebra.and(this::get, other::get),
+            Operation.AND, this, other, algebra, null
         );
     }
 
@@ -76,7 +179,19 @@ public class TemporalFuzzyBoolFactory implements ContainerFuzzyBoolTime {
     public TemporalFuzzyBoolFactory or(TemporalFuzzyBoolFactory other) {
         Objects.requireNonNull(other);
         return new TemporalFuzzyBoolFactory(
-            time -> this.get(time).or(other.get(time))
+            time -> this.get(time).or(other.get(time)),
+            Operation.OR, this, other, SignedProductAlgebra.INSTANCE, null
+        );
+    }
+
+    /**
+     * Creates new factory that combines this and other with OR operation of the algebra
+     */
+    public TemporalFuzzyBoolFactory or(TemporalFuzzyBoolFactory other, FuzzyAlgebra algebra) {
+        Objects.requireNonNull(other);
+        return new TemporalFuzzyBoolFactory(
+            algebra.or(this::get, other::get),
+            Operation.OR, this, other, algebra, null
         );
     }
 
@@ -85,8 +200,198 @@ public class TemporalFuzzyBoolFactory implements ContainerFuzzyBoolTime {
      */
     public TemporalFuzzyBoolFactory not() {
         return new TemporalFuzzyBoolFactory(
-            time -> this.get(time).not()
+            time -> this.get(time).not(),
+            Operation.NOT, this, null, algebra, null
+        );
+    }
+
+    /**
+     * Creates new factory tree of the same shape where every AND and OR uses the algebra.
+     * Leaves, names and parallel() mode are kept, shared subtrees stay shared.
+     */
+    public TemporalFuzzyBoolFactory withAlgebra(FuzzyAlgebra newAlgebra) {
+        Objects.requireNonNull(newAlgebra);
+        return rebuild(newAlgebra, new IdentityHashMap<>());
+    }
+
+    private TemporalFuzzyBoolFactory rebuild(FuzzyAlgebra newAlgebra,
+                                             Map<TemporalFuzzyBoolFactory, TemporalFuzzyBoolFactory> rebuilt) {
+        TemporalFuzzyBoolFactory done = rebuilt.get(this);
+        if (done != null) {
+            return done;
+        }
+        TemporalFuzzyBoolFactory result;
+        switch (operation) {
+            case AND:
+                result = left.rebuild(newAlgebra, rebuilt).and(right.rebuild(newAlgebra, rebuilt), newAlgebra);
+                break;
+            case OR:
+                result = left.rebuild(newAlgebra, rebuilt).or(right.rebuild(newAlgebra, rebuilt), newAlgebra);
+                break;
+            case NOT:
+                result = left.rebuild(newAlgebra, rebuilt).not();
+                break;
+            default:
+                result = this;
+        }
+        if (pool != null && result != this) {
+            result = result.parallel(pool, sequentialThreshold);
+        }
+        if (name != null && result != this) {
+            result = result.withName(name);
+        }
+        rebuilt.put(this, result);
+        return result;
+    }
+
+    /**
+     * Creates new factory that evaluates independent subtrees in parallel
+     * on the common ForkJoinPool
+     * @see #parallel(ForkJoinPool, int)
+     */
+    public TemporalFuzzyBoolFactory parallel(int sequentialThreshold) {
+        return parallel(ForkJoinPool.commonPool(), sequentialThreshold);
+    }
+
+    /**
+     * Creates new factory that evaluates independent subtrees of AND and OR in parallel.
+     * Subtrees with fewer leaves than the threshold are evaluated sequentially.
+     * Operands are combined in the same order as in sequential evaluation, so results
+     * are identical; leaf time functions must be safe to call from several threads.
+     * @param pool executes the subtrees
+     * @param sequentialThreshold is a minimal number of leaves worth splitting
+     */
+    public TemporalFuzzyBoolFactory parallel(ForkJoinPool pool, int sequentialThreshold) {
+        Objects.requireNonNull(pool);
+        if (sequentialThreshold < 2) {
+            throw new IllegalArgumentException("Sequential threshold must be at least 2");
+        }
+        return new TemporalFuzzyBoolFactory(
+            time -> pool.invoke(new ParallelEvaluation(this, time, sequentialThreshold)),
+            operation, left, right, algebra, name, pool, sequentialThreshold
         );
     }
 
+    /**
+     * Check if get() evaluates subtrees in parallel (see parallel())
+     */
+    public boolean isParallel() {
+        return pool != null;
+    }
+
+    /**
+     * Evaluates the factory tree node by node and records value, trigger outcome,
+     * evaluation count and timing of every node. The result is the same as get(time),
+     * but regular get() calls are not instrumented and pay nothing for this.
+     * @param time is definite time
+     * @return evaluation trace with the root node of the factory tree
+     */
+    public EvaluationTrace explain(LocalDateTime time) {
+        Objects.requireNonNull(time);
+        Map<TemporalFuzzyBoolFactory, Integer> evaluations = new IdentityHashMap<>();
+        Measurement root = measure(time, evaluations);
+        return root.toTrace(evaluations, root.nanos);
+    }
+
+    private Measurement measure(LocalDateTime time, Map<TemporalFuzzyBoolFactory, Integer> evaluations) {
+        evaluations.merge(this, 1, Integer::sum);
+        long start = System.nanoTime();
+        List<Measurement> children = new ArrayList<>(2);
+        FuzzyBool value;
+        switch (operation) {
+            case AND: {
+                Measurement l = left.measure(time, evaluations);
+                Measurement r = right.measure(time, evaluations);
+                children.add(l);
+                children.add(r);
+                value = algebra.and(l.value, r.value);
+                break;
+            }
+            case OR: {
+                Measurement l = left.measure(time, evaluations);
+                Measurement r = right.measure(time, evaluations);
+                children.add(l);
+                children.add(r);
+                value = algebra.or(l.value, r.value);
+                break;
+            }
+            case NOT: {
+                Measurement l = left.measure(time, evaluations);
+                children.add(l);
+                value = l.value.not();
+                break;
+            }
+            default:
+                value = get(time);
+        }
+        return new Measurement(this, value, System.nanoTime() - start, children);
+    }
+
+    /**
+     * Fork-join task evaluating one subtree for parallel()
+     */
+    private static final class ParallelEvaluation extends RecursiveTask<FuzzyBool> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final TemporalFuzzyBoolFactory factory;
+        private final LocalDateTime time;
+        private final int sequentialThreshold;
+
+        private ParallelEvaluation(TemporalFuzzyBoolFactory factory, LocalDateTime time, int sequentialThreshold) {
+            this.factory = factory;
+            this.time = time;
+            this.sequentialThreshold = sequentialThreshold;
+        }
+
+        @Override
+        protected FuzzyBool compute() {
+            if (factory.leafCount < sequentialThreshold || factory.operation == Operation.LEAF) {
+                return factory.get(time);
+            }
+            if (factory.operation == Operation.NOT) {
+                return new ParallelEvaluation(factory.left, time, sequentialThreshold).compute().not();
+            }
+            ParallelEvaluation l = new ParallelEvaluation(factory.left, time, sequentialThreshold);
+            ParallelEvaluation r = new ParallelEvaluation(factory.right, time, sequentialThreshold);
+            l.fork();
+            FuzzyBool rv = r.compute();
+            FuzzyBool lv = l.join();
+            return factory.operation == Operation.AND
+                ? factory.algebra.and(lv, rv)
+                : factory.algebra.or(lv, rv);
+        }
+    }
+
+    /**
+     * Raw timing of one node collected by explain() before the tree totals are known
+     */
+    private static final class Measurement {
+
+        private final TemporalFuzzyBoolFactory factory;
+        private final FuzzyBool value;
+        private final long nanos;
+        private final List<Measurement> children;
+
+        private Measurement(TemporalFuzzyBoolFactory factory, FuzzyBool value, long nanos, List<Measurement> children) {
+            this.factory = factory;
+            this.value = value;
+            this.nanos = nanos;
+            this.children = children;
+        }
+
+        private EvaluationTrace toTrace(Map<TemporalFuzzyBoolFactory, Integer> evaluations, long rootNanos) {
+            List<EvaluationTrace> traces = new ArrayList<>(children.size());
+            long childNanos = 0;
+            for (Measurement child : children) {
+                traces.add(child.toTrace(evaluations, rootNanos));
+                childNanos += child.nanos;
+            }
+            long selfNanos = Math.max(0, nanos - childNanos);
+            return new EvaluationTrace(factory.operation, factory.name, value,
+                evaluations.get(factory), nanos, selfNanos,
+                EvaluationTrace.dominates(selfNanos, rootNanos), traces);
+        }
+    }
+
 }
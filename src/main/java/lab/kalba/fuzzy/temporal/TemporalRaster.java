@@ -0,0 +1,125 @@
+package lab.kalba.fuzzy.temporal;
+
+/*
+ *  Temporal fuzzy logic API
+ *  Kalba Lab, 2022-2024
+ */
+
+import lab.kalba.fuzzy.core.FuzzyBool;
+import lab.kalba.fuzzy.core.FuzzyTruth;
+import lab.kalba.fuzzy.trigger.TriggerFunction;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Objects;
+
+/**
+ * Precomputed periodic lookup table of a temporal rule. The rule is sampled every step
+ * starting at origin; the table repeats with period step × count, so a raster of one
+ * day or one week answers for any time. Truth values are stored as quantization levels,
+ * one byte per sample.
+ */
+public final class TemporalRaster implements ContainerFuzzyBoolTime {
+
+    private final LocalDateTime origin;
+    private final long originSecond;
+    private final long stepSeconds;
+    private final int count;
+    private final ByteBuffer levels;
+    private final TriggerFunction triggerFunction;
+
+    /**
+     * Creates raster over existing levels (e.g. a slice of a mapped snapshot file)
+     * @param levels holds one quantization level per sample, from position 0 to capacity
+     */
+    public TemporalRaster(LocalDateTime origin, Duration step, ByteBuffer levels, TriggerFunction triggerFunction) {
+        this.origin = Objects.requireNonNull(origin);
+        this.stepSeconds = Objects.requireNonNull(step).getSeconds();
+        if (stepSeconds <= 0 || step.getNano() != 0) {
+            throw new IllegalArgumentException("Step must be a positive whole number of seconds");
+        }
+        if (levels.capacity() == 0) {
+            throw new IllegalArgumentException("Raster must have at least one sample");
+        }
+        this.originSecond = origin.toEpochSecond(ZoneOffset.UTC);
+        this.levels = levels.asReadOnlyBuffer();
+        this.count = levels.capacity();
+        this.triggerFunction = Objects.requireNonNull(triggerFunction);
+    }
+
+    /**
+     * Samples factory count times every step starting at origin
+     */
+    public static TemporalRaster sample(TemporalFuzzyBoolFactory factory, LocalDateTime origin,
+                                        Duration step, int count, TriggerFunction triggerFunction) {
+        Objects.requireNonNull(factory);
+        ByteBuffer levels = ByteBuffer.allocate(count);
+        LocalDateTime time = origin;
+        for (int i = 0; i < count; i++) {
+            levels.put(i, (byte) FuzzyTruth.toLevel(factory.get(time).getTruth()));
+            time = time.plus(step);
+        }
+        return new TemporalRaster(origin, step, levels, triggerFunction);
+    }
+
+    /**
+     * Produces FuzzyBool object from the sample covering the time
+     */
+    @Override
+    public FuzzyBool get(LocalDateTime time) {
+        return FuzzyBool.of(truth(time), triggerFunction);
+    }
+
+    /**
+     * Truth value of the sample covering the time
+     */
+    public float truth(LocalDateTime time) {
+        long seconds = time.toEpochSecond(ZoneOffset.UTC) - originSecond;
+        int index = (int) Math.floorMod(Math.floorDiv(seconds, stepSeconds), (long) count);
+        return FuzzyTruth.fromLevel(levels.get(index) & 0xFF);
+    }
+
+    /**
+     * View of the raster as a regular factory
+     */
+    public TemporalFuzzyBoolFactory toFactory() {
+        return new TemporalFuzzyBoolFactory(this::get);
+    }
+
+    /**
+     * Time of the first sample
+     */
+    public LocalDateTime getOrigin() {
+        return origin;
+    }
+
+    /**
+     * Time between samples
+     */
+    public Duration getStep() {
+        return Duration.ofSeconds(stepSeconds);
+    }
+
+    /**
+     * Number of samples in one period
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Trigger function of produced FuzzyBool objects
+     */
+    public TriggerFunction getTriggerFunction() {
+        return triggerFunction;
+    }
+
+    /**
+     * Read-only view of the levels, one unsigned byte per sample
+     */
+    public ByteBuffer getLevels() {
+        return levels.duplicate().clear();
+    }
+
+}
@@ -0,0 +1,123 @@
+package lab.kalba.fuzzy.temporal;
+
+/*
+ *  Temporal fuzzy logic API
+ *  Kalba Lab, 2022-2024
+ */
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Calendar fields of a definite time decomposed once into primitives,
+ * so rules evaluated for many entities at the same time do not repeat the work.
+ */
+public final class TimeDecomposition {
+
+    private final LocalDateTime time;
+    private final int year;
+    private final int month;
+    private final int dayOfMonth;
+    private final int dayOfWeek;
+    private final int dayOfYear;
+    private final int hour;
+    private final int minute;
+    private final int second;
+
+    private TimeDecomposition(LocalDateTime time) {
+        this.time = time;
+        this.year = time.getYear();
+        this.month = time.getMonthValue();
+        this.dayOfMonth = time.getDayOfMonth();
+        this.dayOfWeek = time.getDayOfWeek().getValue();
+        this.dayOfYear = time.getDayOfYear();
+        this.hour = time.getHour();
+        this.minute = time.getMinute();
+        this.second = time.getSecond();
+    }
+
+    /**
+     * Decompose definite time
+     */
+    public static TimeDecomposition of(LocalDateTime time) {
+        return new TimeDecomposition(Objects.requireNonNull(time));
+    }
+
+    /**
+     * Get the decomposed time
+     */
+    public LocalDateTime getTime() {
+        return time;
+    }
+
+    /**
+     * Year, e.g. 2022
+     */
+    public int getYear() {
+        return year;
+    }
+
+    /**
+     * Month from 1 (January) to 12 (December)
+     */
+    public int getMonth() {
+        return month;
+    }
+
+    /**
+     * Day of month from 1 to 31
+     */
+    public int getDayOfMonth() {
+        return dayOfMonth;
+    }
+
+    /**
+     * Day of week from 1 (Monday) to 7 (Sunday)
+     */
+    public int getDayOfWeek() {
+        return dayOfWeek;
+    }
+
+    /**
+     * Day of year from 1 to 366
+     */
+    public int getDayOfYear() {
+        return dayOfYear;
+    }
+
+    /**
+     * Hour of day from 0 to 23
+     */
+    public int getHour() {
+        return hour;
+    }
+
+    /**
+     * Minute of hour from 0 to 59
+     */
+    public int getMinute() {
+        return minute;
+    }
+
+    /**
+     * Second of minute from 0 to 59
+     */
+    public int getSecond() {
+        return second;
+    }
+
+    /**
+     * Minutes since midnight, in [0, 1440)
+     */
+    public int getMinuteOfDay() {
+        return hour * 60 + minute;
+    }
+
+    /**
+     * Fractional hour since midnight, e.g. 9.5 for 09:30
+     */
+    public float getHourOfDay() {
+        return hour + minute / 60.0f + second / 3600.0f;
+    }
+
+}
@@ -0,0 +1,95 @@
+package lab.kalba.fuzzy.batch;
+
+/*
+ *  Temporal fuzzy logic API
+ *  Kalba Lab, 2022-2024
+ */
+
+import lab.kalba.fuzzy.core.FuzzyBool;
+import lab.kalba.fuzzy.core.FuzzyTruth;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchFileEvaluatorTest {
+
+    private static final BatchRule OPEN_AND_INPUT = (time, entity, input) ->
+        FuzzyBool.fromBoolean(time.getHour() >= 9 && time.getHour() < 18).and(input).getTruth();
+
+    private static final BatchRule EVEN_ENTITY_OR_INPUT = (time, entity, input) ->
+        FuzzyBool.fromBoolean(entity % 2 == 0).or(input).getTruth();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void resultsShouldFollowInputOrderAcrossChunks() throws IOException {
+        Random random = new Random(7);
+        LocalDateTime time = LocalDateTime.of(2022, 1, 1, 0, 0);
+        StringBuilder text = new StringBuilder();
+        int count = 2000;
+        LocalDateTime[] times = new LocalDateTime[count];
+        int[] entities = new int[count];
+        float[] inputs = new float[count];
+        for (int i = 0; i < count; i++) {
+            times[i] = time.plusMinutes(i / 3 * 7);
+            entities[i] = random.nextInt(500);
+            inputs[i] = FuzzyBool.of(random.nextInt(201) / 100.0f - 1.0f).getTruth();
+            text.append(times[i]).append(i % 2 == 0 ? ":00" : "").append(',')
+                .append(entities[i]).append(',').append(inputs[i]).append(i % 5 == 0 ? "\r\n" : "\n");
+            if (i % 100 == 0) text.append('\n');
+        }
+        Path input = directory.resolve("records.csv");
+        Path output = directory.resolve("results.bin");
+        Files.writeString(input, text, StandardCharsets.UTF_8);
+
+        long records = new BatchFileEvaluator(List.of(OPEN_AND_INPUT, EVEN_ENTITY_OR_INPUT), 97)
+            .evaluate(input, output);
+
+        assertEquals(count, records);
+        byte[] results = Files.readAllBytes(output);
+        assertEquals(count * 2, results.length);
+        for (int i = 0; i < count; i++) {
+            FuzzyBool in = FuzzyBool.of(inputs[i]);
+            float open = FuzzyBool.fromBoolean(times[i].getHour() >= 9 && times[i].getHour() < 18).and(in).getTruth();
+            float even = FuzzyBool.fromBoolean(entities[i] % 2 == 0).or(in).getTruth();
+            assertEquals(open, FuzzyTruth.fromLevel(results[2 * i] & 0xFF), "record " + i);
+            assertEquals(even, FuzzyTruth.fromLevel(results[2 * i + 1] & 0xFF), "record " + i);
+        }
+    }
+
+    @Test
+    void shouldRejectMalformedRecords() throws IOException {
+        Path output = directory.resolve("results.bin");
+        BatchFileEvaluator evaluator = new BatchFileEvaluator(List.of(OPEN_AND_INPUT));
+
+        Path badTime = directory.resolve("bad-time.csv");
+        Files.writeString(badTime, "2022-01-01T09:30,1,0.5\n2022-13-01T09:30,1,0.5\n");
+        assertThrows(IllegalArgumentException.class, () -> evaluator.evaluate(badTime, output));
+
+        Path badTruth = directory.resolve("bad-truth.csv");
+        Files.writeString(badTruth, "2022-01-01T09:30,1,1.5\n");
+        assertThrows(IllegalArgumentException.class, () -> evaluator.evaluate(badTruth, output));
+
+        // the previous record must not let an out-of-range time through
+        Path collidingTime = directory.resolve("colliding-time.csv");
+        Files.writeString(collidingTime, "2022-01-02T00:00,1,0.5\n2022-01-01T24:00,1,0.5\n");
+        assertThrows(IllegalArgumentException.class, () -> evaluator.evaluate(collidingTime, output));
+
+        Path collidingMinute = directory.resolve("colliding-minute.csv");
+        Files.writeString(collidingMinute, "2022-01-01T10:00:00,1,0.5\n2022-01-01T09:59:60,1,0.5\n");
+        assertThrows(IllegalArgumentException.class, () -> evaluator.evaluate(collidingMinute, output));
+
+        Path empty = directory.resolve("empty.csv");
+        Files.writeString(empty, "");
+        assertEquals(0, evaluator.evaluate(empty, output));
+    }
+
+}
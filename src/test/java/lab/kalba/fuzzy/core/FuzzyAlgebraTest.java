@@ -0,0 +1,58 @@
+package lab.kalba.fuzzy.core;
+
+/*
+ *  Temporal fuzzy logic API
+ *  Kalba Lab, 2022-2024
+ */
+
+import lab.kalba.fuzzy.trigger.TriggerFunction;
+import org.junit.jupiter.api.Test;
+import java.util.function.Function;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FuzzyAlgebraTest {
+
+    @Test
+    void signedProductShouldMatchFuzzyBool() {
+        float[] values = {-1.0f, -0.91f, -0.5f, 0.0f, 0.4f, 0.47f, 0.99f, 1.0f};
+        for (float a : values) {
+            for (float b : values) {
+                FuzzyBool x = FuzzyBool.of(a);
+                FuzzyBool y = FuzzyBool.of(b);
+                assertEquals(x.and(y), SignedProductAlgebra.INSTANCE.and(x, y));
+                assertEquals(x.or(y), SignedProductAlgebra.INSTANCE.or(x, y));
+                assertEquals(x.fuzzyNot(), SignedProductAlgebra.INSTANCE.not(a));
+            }
+        }
+    }
+
+    @Test
+    void zadehShouldUseMinAndMax() {
+        assertEquals(-0.4f, ZadehAlgebra.INSTANCE.and(0.9f, -0.4f));
+        assertEquals(0.9f, ZadehAlgebra.INSTANCE.or(0.9f, -0.4f));
+        assertEquals(0.3f, ZadehAlgebra.INSTANCE.and(0.3f, 0.8f));
+        assertEquals(-0.3f, ZadehAlgebra.INSTANCE.not(0.3f));
+    }
+
+    @Test
+    void lukasiewiczShouldBeBounded() {
+        assertEquals(1.0f, LukasiewiczAlgebra.INSTANCE.and(1.0f, 1.0f));
+        assertEquals(-1.0f, LukasiewiczAlgebra.INSTANCE.and(-0.2f, 0.1f));
+        assertEquals(0.2f, LukasiewiczAlgebra.INSTANCE.and(0.6f, 0.6f));
+        assertEquals(1.0f, LukasiewiczAlgebra.INSTANCE.or(0.2f, -0.1f));
+        assertEquals(-0.2f, LukasiewiczAlgebra.INSTANCE.or(-0.6f, -0.6f));
+        assertEquals(-1.0f, LukasiewiczAlgebra.INSTANCE.or(-1.0f, -1.0f));
+    }
+
+    @Test
+    void composedFunctionShouldKeepFirstTrigger() {
+        Function<String, FuzzyBool> left = s -> FuzzyBool.of(0.8f, TriggerFunction.POSITIVE);
+        Function<String, FuzzyBool> right = s -> FuzzyBool.of(0.5f);
+
+        FuzzyBool result = ZadehAlgebra.INSTANCE.and(left, right).apply("now");
+
+        assertEquals(0.5f, result.getTruth());
+        assertSame(TriggerFunction.POSITIVE, result.getTriggerFunction());
+    }
+
+}
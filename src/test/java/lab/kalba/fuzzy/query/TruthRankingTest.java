@@ -0,0 +1,73 @@
+package lab.kalba.fuzzy.query;
+
+/*
+ *  Temporal fuzzy logic API
+ *  Kalba Lab, 2022-2024
+ */
+
+import lab.kalba.fuzzy.core.FuzzyBool;
+import lab.kalba.fuzzy.temporal.TemporalFuzzyBoolFactory;
+import lab.kalba.fuzzy.trigger.TriggerFunction;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TruthRankingTest {
+
+    @Test
+    void shouldOrderByTruthThenByIndex() {
+        float[] truths = {0.2f, 0.9f, -0.4f, 0.9f, 0.0f, -1.0f};
+
+        assertArrayEquals(new int[] {1, 3, 0}, TruthRanking.top(truths, 3));
+        assertArrayEquals(new int[] {5, 2}, TruthRanking.bottom(truths, 2));
+        assertArrayEquals(new int[] {2, 5}, TruthRanking.top(truths, 10, TriggerFunction.belowThreshold(0)));
+        assertArrayEquals(new int[0], TruthRanking.top(truths, 0));
+        assertThrows(IllegalArgumentException.class, () -> TruthRanking.top(new float[] {1.2f}, 1));
+    }
+
+    @Test
+    void shouldMatchSortingOnLargeVectors() {
+        Random random = new Random(11);
+        int n = TruthRanking.PARALLEL_THRESHOLD * 3 + 17;
+        float[] truths = new float[n];
+        for (int i = 0; i < n; i++) {
+            truths[i] = FuzzyBool.of(random.nextInt(201) / 100.0f - 1.0f).getTruth();
+        }
+        TriggerFunction filter = TriggerFunction.POSITIVE;
+
+        for (int k : new int[] {1, 100, 5000, n}) {
+            assertArrayEquals(sorted(truths, k, true, TriggerFunction.ALWAYS_TRUE), TruthRanking.top(truths, k));
+            assertArrayEquals(sorted(truths, k, false, TriggerFunction.ALWAYS_TRUE), TruthRanking.bottom(truths, k));
+            assertArrayEquals(sorted(truths, k, true, filter), TruthRanking.top(truths, k, filter));
+        }
+    }
+
+    @Test
+    void shouldRankFactoriesAtInstant() {
+        LocalDateTime time = LocalDateTime.of(2022, 1, 1, 12, 0);
+        List<TemporalFuzzyBoolFactory> stores = List.of(
+            new TemporalFuzzyBoolFactory(t -> FuzzyBool.of(0.3f)),
+            new TemporalFuzzyBoolFactory(t -> FuzzyBool.of(0.8f)),
+            new TemporalFuzzyBoolFactory(t -> FuzzyBool.of(-0.6f)));
+
+        assertArrayEquals(new int[] {1, 0}, TruthRanking.top(stores, time, 2));
+        assertArrayEquals(new int[] {2}, TruthRanking.bottom(stores, time, 1));
+        assertArrayEquals(new int[] {1, 0}, TruthRanking.top(stores, time, 5, TriggerFunction.POSITIVE));
+        assertArrayEquals(new int[] {0, 1}, TruthRanking.bottom(stores, time, 5, TriggerFunction.POSITIVE));
+    }
+
+    private static int[] sorted(float[] truths, int k, boolean highest, TriggerFunction filter) {
+        Comparator<Integer> byTruth = Comparator.comparingDouble(i -> truths[i]);
+        return IntStream.range(0, truths.length).boxed()
+            .filter(i -> filter.test(truths[i]))
+            .sorted((highest ? byTruth.reversed() : byTruth).thenComparing(Comparator.naturalOrder()))
+            .limit(k)
+            .mapToInt(Integer::intValue)
+            .toArray();
+    }
+
+}
@@ -0,0 +1,73 @@
+package lab.kalba.fuzzy.query;
+
+/*
+ *  Temporal fuzzy logic API
+ *  Kalba Lab, 2022-2024
+ */
+
+import lab.kalba.fuzzy.core.FuzzyBool;
+import lab.kalba.fuzzy.trigger.TriggerFunction;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TruthSeriesIndexTest {
+
+    private static final LocalDateTime ORIGIN = LocalDateTime.of(2022, 1, 1, 0, 0);
+
+    @Test
+    void rangeQueriesShouldMatchLinearScan() {
+        Random random = new Random(42);
+        TruthSeriesIndex index = new TruthSeriesIndex(ORIGIN, Duration.ofMinutes(1));
+        float[] series = new float[1000];
+        TriggerFunction[] triggers = {
+            TriggerFunction.STRONG, TriggerFunction.EXACT_TRUE,
+            TriggerFunction.belowThreshold(-0.5f), TriggerFunction.inRange(-0.1f, 0.1f)
+        };
+
+        for (int n = 0; n < series.length; n++) {
+            series[n] = FuzzyBool.of(random.nextInt(201) / 100.0f - 1.0f).getTruth();
+            index.append(series[n]);
+
+            for (int q = 0; q < 5; q++) {
+                int from = random.nextInt(n + 1);
+                int to = from + 1 + random.nextInt(n + 1 - from);
+                float min = series[from];
+                float max = series[from];
+                for (int i = from; i < to; i++) {
+                    min = Math.min(min, series[i]);
+                    max = Math.max(max, series[i]);
+                }
+                assertEquals(min, index.min(from, to));
+                assertEquals(max, index.max(from, to));
+                for (TriggerFunction trigger : triggers) {
+                    int expected = -1;
+                    for (int i = from; i < to && expected < 0; i++) {
+                        if (trigger.test(series[i])) expected = i;
+                    }
+                    assertEquals(expected, index.firstTriggered(from, to, trigger));
+                }
+            }
+        }
+    }
+
+    @Test
+    void timeQueriesShouldUseSamplesInRange() {
+        TruthSeriesIndex index = new TruthSeriesIndex(ORIGIN, Duration.ofHours(1));
+        float[] series = {0.2f, -0.7f, 0.4f, 0.9f, -0.1f};
+        for (float truth : series) {
+            index.append(FuzzyBool.of(truth));
+        }
+
+        assertEquals(-0.7f, index.min(ORIGIN, ORIGIN.plusHours(3)));
+        assertEquals(0.4f, index.max(ORIGIN.plusMinutes(90), ORIGIN.plusHours(3)));
+        assertEquals(0.9f, index.max(ORIGIN.minusDays(1), ORIGIN.plusDays(1)));
+        assertEquals(ORIGIN.plusHours(3),
+            index.firstTriggered(ORIGIN, ORIGIN.plusDays(1), TriggerFunction.STRONG));
+        assertNull(index.firstTriggered(ORIGIN.plusHours(4), ORIGIN.plusDays(1), TriggerFunction.POSITIVE));
+        assertThrows(IllegalArgumentException.class, () -> index.min(ORIGIN.plusDays(1), ORIGIN.plusDays(2)));
+    }
+
+}
@@ -0,0 +1,141 @@
+package lab.kalba.fuzzy.snapshot;
+
+/*
+ *  Temporal fuzzy logic API
+ *  Kalba Lab, 2022-2024
+ */
+
+import lab.kalba.fuzzy.core.FuzzyBool;
+import lab.kalba.fuzzy.temporal.TemporalFuzzyBoolFactory;
+import lab.kalba.fuzzy.temporal.TemporalRaster;
+import lab.kalba.fuzzy.trigger.TriggerFunction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleSnapshotTest {
+
+    private static final LocalDateTime MIDNIGHT = LocalDateTime.of(2022, 1, 3, 0, 0);
+
+    @TempDir
+    Path directory;
+
+    private final TemporalFuzzyBoolFactory storeIsOpen = new TemporalFuzzyBoolFactory(time -> {
+        int hour = time.getHour();
+        if (hour >= 9 && hour < 18) return FuzzyBool.TRUE;
+        if (hour == 18) return FuzzyBool.of(0.35f);
+        return FuzzyBool.FALSE;
+    });
+
+    @Test
+    void rasterShouldRepeatEveryPeriod() {
+        TemporalRaster daily = TemporalRaster.sample(storeIsOpen, MIDNIGHT, Duration.ofMinutes(15), 96,
+            TriggerFunction.POSITIVE);
+
+        LocalDateTime time = LocalDateTime.of(2022, 2, 17, 18, 20);
+        assertEquals(storeIsOpen.get(time), daily.get(time));
+        assertEquals(FuzzyBool.FALSE, daily.get(MIDNIGHT.minusMinutes(1)));
+        assertTrue(daily.get(time).trigger());
+    }
+
+    @Test
+    void loadedRulesShouldMatchWrittenRules() throws IOException {
+        Map<String, TemporalRaster> rules = new LinkedHashMap<>();
+        rules.put("open", TemporalRaster.sample(storeIsOpen, MIDNIGHT, Duration.ofMinutes(15), 96,
+            TriggerFunction.STRONG));
+        rules.put("closed", TemporalRaster.sample(storeIsOpen.not(), MIDNIGHT, Duration.ofHours(1), 24 * 7,
+            TriggerFunction.EXACT_TRUE));
+        Path file = directory.resolve("rules.snapshot");
+
+        RuleSnapshot.write(file, rules);
+        RuleSnapshot snapshot = RuleSnapshot.load(file);
+
+        assertEquals(rules.keySet(), snapshot.names());
+        assertFalse(snapshot.isMaterialized("open"));
+        for (int minute = 0; minute < 24 * 60; minute += 5) {
+            LocalDateTime time = MIDNIGHT.plusMinutes(minute);
+            assertEquals(rules.get("open").get(time), snapshot.get("open").get(time));
+            assertEquals(rules.get("closed").get(time), snapshot.get("closed").get(time));
+        }
+        assertTrue(snapshot.isMaterialized("open"));
+        assertSame(TriggerFunction.STRONG, snapshot.get("open").getTriggerFunction());
+        assertNull(snapshot.get("missing"));
+    }
+
+    @Test
+    void loadedSnapshotShouldSurviveRewrite() throws IOException {
+        TemporalFuzzyBoolFactory half = new TemporalFuzzyBoolFactory(time -> FuzzyBool.of(0.5f));
+        Path file = directory.resolve("rules.snapshot");
+        RuleSnapshot.write(file, Map.of("a", TemporalRaster.sample(half, MIDNIGHT, Duration.ofMinutes(1), 1440,
+            TriggerFunction.EXACT_TRUE)));
+        RuleSnapshot old = RuleSnapshot.load(file);
+
+        RuleSnapshot.write(file, Map.of("b", TemporalRaster.sample(half.not(), MIDNIGHT, Duration.ofHours(1), 1,
+            TriggerFunction.EXACT_TRUE)));
+
+        for (int minute = 0; minute < 1440; minute += 7) {
+            assertEquals(0.5f, old.get("a").get(MIDNIGHT.plusMinutes(minute)).getTruth());
+        }
+        RuleSnapshot current = RuleSnapshot.load(file);
+        assertEquals(Set.of("b"), current.names());
+        assertEquals(-0.5f, current.get("b").get(MIDNIGHT).getTruth());
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void shouldRejectUnnamedTriggerAndForeignFile() throws IOException {
+        Map<String, TemporalRaster> rules = Map.of("open", TemporalRaster.sample(storeIsOpen, MIDNIGHT,
+            Duration.ofHours(1), 24, TriggerFunction.aboveThreshold(0.2f)));
+        Path file = directory.resolve("rules.snapshot");
+        assertThrows(IllegalArgumentException.class, () -> RuleSnapshot.write(file, rules));
+
+        Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+        assertThrows(IllegalArgumentException.class, () -> RuleSnapshot.load(file));
+
+        // header 16, trigger "EXACT_TRUE" 12, rule "open": name 6, trigger id at 34, count at 54, offset at 58
+        RuleSnapshot.write(file, Map.of("open", TemporalRaster.sample(storeIsOpen, MIDNIGHT,
+            Duration.ofHours(1), 24, TriggerFunction.EXACT_TRUE)));
+        byte[] valid = Files.readAllBytes(file);
+        assertEquals(66 + 24, valid.length);
+
+        assertCorrupt(file, Arrays.copyOf(valid, 20));
+        assertCorrupt(file, Arrays.copyOf(valid, 50));
+        assertCorrupt(file, patchInt(valid, 34, 7));
+        assertCorrupt(file, patchInt(valid, 34, -1));
+        assertCorrupt(file, patchInt(valid, 54, -24));
+        assertCorrupt(file, patchInt(valid, 54, 25));
+        assertCorrupt(file, patchLong(valid, 58, 0));
+        assertCorrupt(file, patchLong(valid, 58, -10));
+        assertCorrupt(file, patchInt(valid, 12, Integer.MAX_VALUE));
+    }
+
+    private static void assertCorrupt(Path file, byte[] content) throws IOException {
+        Files.write(file, content);
+        assertThrows(IllegalArgumentException.class, () -> RuleSnapshot.load(file));
+    }
+
+    private static byte[] patchInt(byte[] content, int offset, int value) {
+        byte[] patched = content.clone();
+        ByteBuffer.wrap(patched).putInt(offset, value);
+        return patched;
+    }
+
+    private static byte[] patchLong(byte[] content, int offset, long value) {
+        byte[] patched = content.clone();
+        ByteBuffer.wrap(patched).putLong(offset, value);
+        return patched;
+    }
+
+}
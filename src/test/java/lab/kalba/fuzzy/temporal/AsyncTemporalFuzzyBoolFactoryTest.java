@@ -0,0 +1,95 @@
+package lab.kalba.fuzzy.temporal;
+
+/*
+ *  Temporal fuzzy logic API
+ *  Kalba Lab, 2022-2024
+ */
+
+import lab.kalba.fuzzy.core.FuzzyBool;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncTemporalFuzzyBoolFactoryTest {
+
+    private final LocalDateTime SPECIFIC_TIME = LocalDateTime.of(2022, 1, 1, 21, 30, 15);
+
+    @Test
+    void compositionShouldMatchSynchronousFactory() {
+        TemporalFuzzyBoolFactory a = new TemporalFuzzyBoolFactory(time -> FuzzyBool.of(0.8f));
+        TemporalFuzzyBoolFactory b = new TemporalFuzzyBoolFactory(time -> FuzzyBool.of(-0.5f));
+
+        AsyncTemporalFuzzyBoolFactory async = AsyncTemporalFuzzyBoolFactory.of(a)
+            .and(AsyncTemporalFuzzyBoolFactory.blocking(b::get).not())
+            .or(AsyncTemporalFuzzyBoolFactory.of(b));
+
+        assertEquals(a.and(b.not()).or(b).get(SPECIFIC_TIME), async.get(SPECIFIC_TIME).join());
+    }
+
+    @Test
+    void independentLeavesShouldRunConcurrently() {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        AsyncTemporalFuzzyBoolFactory leaf = AsyncTemporalFuzzyBoolFactory.blocking(time -> {
+            bothStarted.countDown();
+            try {
+                // both leaves see each other only when they run at the same time
+                return FuzzyBool.fromBoolean(bothStarted.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return FuzzyBool.FALSE;
+            }
+        });
+
+        FuzzyBool result = assertTimeoutPreemptively(Duration.ofSeconds(10),
+            () -> leaf.and(leaf).get(SPECIFIC_TIME).join());
+        assertEquals(FuzzyBool.TRUE, result);
+    }
+
+    @Test
+    void concurrentRequestsShouldCoalesce() {
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<FuzzyBool> slowSource = new CompletableFuture<>();
+        AsyncTemporalFuzzyBoolFactory calendar = new AsyncTemporalFuzzyBoolFactory(time -> {
+            calls.incrementAndGet();
+            assertEquals(SPECIFIC_TIME.truncatedTo(ChronoUnit.MINUTES), time);
+            return slowSource;
+        }).coalescing(ChronoUnit.MINUTES);
+
+        CompletableFuture<FuzzyBool> first = calendar.get(SPECIFIC_TIME);
+        CompletableFuture<FuzzyBool> second = calendar.get(SPECIFIC_TIME.plusSeconds(20));
+        slowSource.complete(FuzzyBool.of(0.4f));
+
+        assertEquals(0.4f, first.join().getTruth());
+        assertEquals(0.4f, second.join().getTruth());
+        assertEquals(1, calls.get());
+
+        calendar.get(SPECIFIC_TIME).join();
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void coalescingShouldRejectUnitsLargerThanDays() {
+        AsyncTemporalFuzzyBoolFactory calendar = AsyncTemporalFuzzyBoolFactory.of(new TemporalFuzzyBoolFactory());
+
+        assertThrows(IllegalArgumentException.class, () -> calendar.coalescing(ChronoUnit.MONTHS));
+        assertEquals(FuzzyBool.UNKNOWN, calendar.coalescing(ChronoUnit.DAYS).get(SPECIFIC_TIME).join());
+    }
+
+    @Test
+    void coalescingShouldPropagateFailure() {
+        AsyncTemporalFuzzyBoolFactory broken = new AsyncTemporalFuzzyBoolFactory(time -> {
+            throw new IllegalStateException("calendar is not available");
+        }).coalescing(ChronoUnit.MINUTES);
+
+        CompletionException e = assertThrows(CompletionException.class, () -> broken.get(SPECIFIC_TIME).join());
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+
+}
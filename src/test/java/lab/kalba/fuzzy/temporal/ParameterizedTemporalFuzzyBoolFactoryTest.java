@@ -0,0 +1,68 @@
+package lab.kalba.fuzzy.temporal;
+
+/*
+ *  Temporal fuzzy logic API
+ *  Kalba Lab, 2022-2024
+ */
+
+import lab.kalba.fuzzy.core.FuzzyBool;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParameterizedTemporalFuzzyBoolFactoryTest {
+
+    private static final int OPEN = 0;
+    private static final int CLOSE = 1;
+
+    private static final ParameterizedTemporalFuzzyBoolFactory.Kernel STORE_IS_OPEN = (time, columns, entity) -> {
+        float hour = time.getHourOfDay();
+        return hour >= columns[OPEN][entity] && hour < columns[CLOSE][entity] ? 1.0f : -1.0f;
+    };
+
+    private final LocalDateTime TEN_AM = LocalDateTime.of(2022, 1, 1, 10, 0);
+
+    @Test
+    void shouldEvaluateEveryEntity() {
+        ParameterizedTemporalFuzzyBoolFactory storeIsOpen = new ParameterizedTemporalFuzzyBoolFactory(
+            3, STORE_IS_OPEN, new float[] {9, 11, 8}, new float[] {18, 20, 10});
+
+        assertArrayEquals(new float[] {1.0f, -1.0f, -1.0f}, storeIsOpen.evaluate(TEN_AM));
+        assertArrayEquals(new float[] {-1.0f, -1.0f}, storeIsOpen.evaluate(TEN_AM, 1, 3));
+        assertEquals(FuzzyBool.TRUE, storeIsOpen.get(TEN_AM, 0));
+        assertEquals(FuzzyBool.FALSE, storeIsOpen.factoryFor(2).get(TEN_AM));
+    }
+
+    @Test
+    void parallelEvaluationShouldMatchSequential() {
+        int count = ParameterizedTemporalFuzzyBoolFactory.PARALLEL_THRESHOLD * 5 + 7;
+        float[] open = new float[count];
+        float[] close = new float[count];
+        for (int i = 0; i < count; i++) {
+            open[i] = i % 12;
+            close[i] = 12 + i % 12;
+        }
+        ParameterizedTemporalFuzzyBoolFactory storeIsOpen = new ParameterizedTemporalFuzzyBoolFactory(
+            count, STORE_IS_OPEN, open, close);
+
+        float[] truths = storeIsOpen.evaluate(TEN_AM);
+
+        assertEquals(count, truths.length);
+        for (int i = 0; i < count; i++) {
+            assertEquals(storeIsOpen.get(TEN_AM, i).getTruth(), truths[i]);
+        }
+    }
+
+    @Test
+    void shouldRejectInvalidColumnsAndTruths() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new ParameterizedTemporalFuzzyBoolFactory(2, STORE_IS_OPEN, new float[] {9}));
+        assertThrows(IllegalArgumentException.class,
+            () -> new ParameterizedTemporalFuzzyBoolFactory(1, STORE_IS_OPEN, new float[] {9}, null));
+
+        ParameterizedTemporalFuzzyBoolFactory broken = new ParameterizedTemporalFuzzyBoolFactory(
+            1, (time, columns, entity) -> 1.5f);
+        assertThrows(IllegalArgumentException.class, () -> broken.evaluate(TEN_AM));
+    }
+
+}
@@ -6,9 +6,11 @@ package lab.kalba.fuzzy.temporal;
  */
 
 import lab.kalba.fuzzy.core.FuzzyBool;
+import lab.kalba.fuzzy.core.ZadehAlgebra;
 import lab.kalba.fuzzy.trigger.TriggerFunction;
 import org.junit.jupiter.api.Test;
 import java.time.LocalDateTime;
+import java.util.Random;
 import static org.junit.jupiter.api.Assertions.*;
 
 class TemporalFuzzyBoolFactoryTest {
@@ -137,6 +139,115 @@ class TemporalFuzzyBoolFactoryTest {
         assertTrue(goodTimeToMeet.get(testTime).getTruth() < 0);
     }
 
+    @Test
+    void compositionWithAlgebraShouldWork() {
+        TemporalFuzzyBoolFactory factory1 = new TemporalFuzzyBoolFactory(time -> FuzzyBool.of(0.8f));
+        TemporalFuzzyBoolFactory factory2 = new TemporalFuzzyBoolFactory(time -> FuzzyBool.of(0.5f));
+
+        assertEquals(0.5f, factory1.and(factory2, ZadehAlgebra.INSTANCE).get(SPECIFIC_TIME).getTruth());
+        assertEquals(0.8f, factory1.or(factory2, ZadehAlgebra.INSTANCE).get(SPECIFIC_TIME).getTruth());
+    }
+
+    @Test
+    void withAlgebraShouldRebuildWholeTree() {
+        TemporalFuzzyBoolFactory a = new TemporalFuzzyBoolFactory(time -> FuzzyBool.of(0.8f)).withName("a");
+        TemporalFuzzyBoolFactory b = new TemporalFuzzyBoolFactory(time -> FuzzyBool.of(0.5f));
+        TemporalFuzzyBoolFactory rule = a.and(b).and(a.not().or(b)).withName("rule");
+
+        TemporalFuzzyBoolFactory zadeh = rule.withAlgebra(ZadehAlgebra.INSTANCE);
+
+        assertEquals(0.2f, rule.get(SPECIFIC_TIME).getTruth());
+        assertEquals(0.5f, zadeh.get(SPECIFIC_TIME).getTruth());
+        assertEquals("rule", zadeh.getName());
+        assertSame(ZadehAlgebra.INSTANCE, zadeh.getAlgebra());
+        assertEquals(zadeh.get(SPECIFIC_TIME), zadeh.explain(SPECIFIC_TIME).getValue());
+    }
+
+    @Test
+    void parallelEvaluationShouldMatchSequential() {
+        Random random = new Random(3);
+        TemporalFuzzyBoolFactory rule = null;
+        for (int i = 0; i < 200; i++) {
+            float truth = random.nextInt(201) / 100.0f - 1.0f;
+            TemporalFuzzyBoolFactory leaf = new TemporalFuzzyBoolFactory(time -> FuzzyBool.of(truth));
+            if (rule == null) {
+                rule = leaf;
+            } else {
+                rule = switch (i % 3) {
+                    case 0 -> leaf.and(rule);
+                    case 1 -> rule.or(leaf.not());
+                    default -> rule.and(leaf, ZadehAlgebra.INSTANCE).not();
+                };
+            }
+        }
+        TemporalFuzzyBoolFactory balanced = rule.and(rule.not()).or(rule.and(rule));
+
+        TemporalFuzzyBoolFactory parallel = balanced.parallel(8);
+
+        assertEquals(800, balanced.getLeafCount());
+        assertEquals(balanced.get(SPECIFIC_TIME), parallel.get(SPECIFIC_TIME));
+        assertEquals(TemporalFuzzyBoolFactory.Operation.OR, parallel.getOperation());
+        assertThrows(IllegalArgumentException.class, () -> balanced.parallel(1));
+
+        TemporalFuzzyBoolFactory zadeh = parallel.withAlgebra(ZadehAlgebra.INSTANCE);
+        assertTrue(parallel.isParallel());
+        assertTrue(zadeh.isParallel());
+        assertFalse(balanced.withAlgebra(ZadehAlgebra.INSTANCE).isParallel());
+        assertEquals(balanced.withAlgebra(ZadehAlgebra.INSTANCE).get(SPECIFIC_TIME), zadeh.get(SPECIFIC_TIME));
+    }
+
+    @Test
+    void explainShouldMatchGet() {
+        TemporalFuzzyBoolFactory a = new TemporalFuzzyBoolFactory(time -> FuzzyBool.of(0.8f)).withName("a");
+        TemporalFuzzyBoolFactory b = new TemporalFuzzyBoolFactory(time -> FuzzyBool.of(-0.5f)).withName("b");
+        TemporalFuzzyBoolFactory rule = a.and(b.not()).or(a);
+
+        EvaluationTrace trace = rule.explain(SPECIFIC_TIME);
+
+        assertEquals(rule.get(SPECIFIC_TIME), trace.getValue());
+        assertEquals(TemporalFuzzyBoolFactory.Operation.OR, trace.getOperation());
+        assertEquals(2, trace.getChildren().size());
+
+        EvaluationTrace and = trace.getChildren().get(0);
+        assertEquals(0.4f, and.getValue().getTruth());
+        assertEquals("a", and.getChildren().get(0).getName());
+        assertEquals(2, and.getChildren().get(0).getEvaluations());
+        assertEquals(0.5f, and.getChildren().get(1).getValue().getTruth());
+        assertTrue(trace.getNanos() >= and.getNanos());
+    }
+
+    @Test
+    void explainShouldUseOverriddenGet() {
+        TemporalFuzzyBoolFactory overridden = new TemporalFuzzyBoolFactory() {
+            @Override
+            public FuzzyBool get(LocalDateTime time) {
+                return FuzzyBool.of(0.7f);
+            }
+        };
+
+        assertEquals(overridden.get(SPECIFIC_TIME), overridden.explain(SPECIFIC_TIME).getValue());
+        assertEquals(0.7f, overridden.not().explain(SPECIFIC_TIME).getChildren().get(0).getValue().getTruth());
+    }
+
+    @Test
+    void explainShouldFlagDominantLeaf() {
+        TemporalFuzzyBoolFactory slow = new TemporalFuzzyBoolFactory(time -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return FuzzyBool.TRUE;
+        }).withName("slow");
+        TemporalFuzzyBoolFactory fast = new TemporalFuzzyBoolFactory(time -> FuzzyBool.TRUE);
+
+        EvaluationTrace trace = fast.and(slow).explain(SPECIFIC_TIME);
+
+        assertTrue(trace.getChildren().get(1).isDominant());
+        assertFalse(trace.getChildren().get(0).isDominant());
+        assertTrue(trace.isTriggered());
+    }
+
     /**
      * is x ∈ [a, b)
      */